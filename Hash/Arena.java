@@ -0,0 +1,161 @@
+/**
+ * Project Praca domowa 02 – hashing.
+ * Copyright Michał Szczygieł
+ * Created at Oct 24, 2013.
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * 
+ * Arena class, keeps words encoded in UTF-8 outside of heap. Words are
+ * appended to large direct buffers (slabs) and are identified by address:
+ * index of slab in higher bits and offset in lower bits. Every word is
+ * preceded by its length written in 7 bit groups. Space of removed words is
+ * not reused.
+ * 
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ * 
+ */
+public class Arena {
+
+    /**
+     * Amount of bits for offset in slab.
+     */
+    private static final int SLAB_BITS = 24;
+
+    /**
+     * Size of single slab in bytes.
+     */
+    private static final int SLAB_SIZE = 1 << SLAB_BITS;
+
+    /**
+     * Position of next free byte in last slab.
+     */
+    private int position = SLAB_SIZE;
+
+    /**
+     * Slabs with words.
+     */
+    private ArrayList<ByteBuffer> slabs = new ArrayList<ByteBuffer>();
+
+    /**
+     * Appending word to arena.
+     * 
+     * @param word
+     *            word encoded in UTF-8
+     * 
+     * @return address of word
+     */
+    public long add(byte[] word) {
+        int size = word.length + 5;
+
+        if (size > SLAB_SIZE) {
+            throw new IllegalArgumentException("Word is too long : "
+                    + word.length);
+        }
+
+        if (position + size > SLAB_SIZE) {
+            slabs.add(ByteBuffer.allocateDirect(SLAB_SIZE));
+            position = 0;
+        }
+
+        ByteBuffer slab = slabs.get(slabs.size() - 1);
+        long address = ((long) (slabs.size() - 1) << SLAB_BITS) | position;
+        int length = word.length;
+
+        while (length >= 0x80) {
+            slab.put(position++, (byte) (length | 0x80));
+            length >>>= 7;
+        }
+
+        slab.put(position++, (byte) length);
+
+        for (byte value : word) {
+            slab.put(position++, value);
+        }
+
+        return address;
+    }
+
+    /**
+     * Comparing word in arena with given word, byte by byte as unsigned
+     * values.
+     * 
+     * @param address
+     *            address of word in arena
+     * @param word
+     *            word encoded in UTF-8
+     * 
+     * @return negative value, zero, or positive value, if word in arena is
+     *         less than, equal to, or greater than given word
+     */
+    public int compare(long address, byte[] word) {
+        ByteBuffer slab = slabs.get((int) (address >>> SLAB_BITS));
+        int offset = (int) address & (SLAB_SIZE - 1);
+        int length = 0;
+        int shift = 0;
+        byte value;
+
+        do {
+            value = slab.get(offset++);
+            length |= (value & 0x7f) << shift;
+            shift += 7;
+        } while (value < 0);
+
+        int common = Math.min(length, word.length);
+
+        for (int i = 0; i < common; i++) {
+            int difference = (slab.get(offset + i) & 0xff) - (word[i] & 0xff);
+
+            if (difference != 0) {
+                return difference;
+            }
+        }
+
+        return length - word.length;
+    }
+
+    /**
+     * Encoding word in UTF-8.
+     * 
+     * @param word
+     * 
+     * @return encoded word
+     */
+    public static byte[] encode(String word) {
+        return word.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reading word from arena.
+     * 
+     * @param address
+     *            address of word in arena
+     * 
+     * @return word
+     */
+    public String get(long address) {
+        ByteBuffer slab = slabs.get((int) (address >>> SLAB_BITS));
+        int offset = (int) address & (SLAB_SIZE - 1);
+        int length = 0;
+        int shift = 0;
+        byte value;
+
+        do {
+            value = slab.get(offset++);
+            length |= (value & 0x7f) << shift;
+            shift += 7;
+        } while (value < 0);
+
+        byte[] word = new byte[length];
+
+        for (int i = 0; i < length; i++) {
+            word[i] = slab.get(offset + i);
+        }
+
+        return new String(word, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,226 @@
+/**
+ * Project Praca domowa 02 – hashing.
+ * Copyright Michał Szczygieł
+ * Created at Oct 24, 2013.
+ */
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 
+ * ArenaChain class, bucket kept as sorted array of addresses of words stored
+ * in {@link Arena}. Words are compared as raw UTF-8 bytes, searching uses
+ * binary search.
+ * 
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ * 
+ */
+public class ArenaChain implements Chain {
+
+    /**
+     * Empty array shared by all empty chains.
+     */
+    private static final long[] EMPTY = new long[0];
+
+    /**
+     * Addresses of words in chain, sorted by words in ascending order.
+     */
+    private long[] addresses = EMPTY;
+
+    /**
+     * Arena with words.
+     */
+    private Arena arena;
+
+    /**
+     * Amount of comparisons made by last search.
+     */
+    private int comparisons = 0;
+
+    /**
+     * Amount of words in chain.
+     */
+    private int size = 0;
+
+    /**
+     * Constructor. Create chain for words from arena.
+     * 
+     * @param arena
+     *            arena with words
+     */
+    public ArenaChain(Arena arena) {
+        this.arena = arena;
+    }
+
+    /**
+     * Gets address of word.
+     * 
+     * @param index
+     *            index of word in chain
+     * 
+     * @return address of word in arena
+     */
+    public long address(int index) {
+        return addresses[index];
+    }
+
+    /**
+     * Binary Search for words in arena. Every comparison is counted.
+     * 
+     * @param word
+     *            word encoded in UTF-8
+     * 
+     * @return the index of the search key, if it is contained in the chain;
+     *         otherwise, (-(insertion point) - 1)
+     */
+    private int binarySearch(byte[] word) {
+        comparisons = 0;
+        int lower = 0;
+        int upper = size - 1;
+
+        while (lower <= upper) {
+            int mid = (lower + upper) >>> 1;
+            int comparison = arena.compare(addresses[mid], word);
+            comparisons++;
+
+            if (comparison < 0) {
+                lower = mid + 1;
+            } else if (comparison > 0) {
+                upper = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+
+        return -(lower + 1);
+    }
+
+    /**
+     * Searching chain.
+     * 
+     * @param word
+     * 
+     * @return amount of comparisons, if chain contains word; otherwise,
+     *         (-(amount of comparisons) - 1)
+     */
+    @Override
+    public int find(String word) {
+        int index = binarySearch(Arena.encode(word));
+        return index >= 0 ? comparisons : -comparisons - 1;
+    }
+
+    /**
+     * Inserting to chain, if chain does not contain word. Word is appended to
+     * arena.
+     * 
+     * @param word
+     * 
+     * @return amount of comparisons
+     */
+    @Override
+    public int insert(String word) {
+        byte[] bytes = Arena.encode(word);
+        int index = binarySearch(bytes);
+
+        if (index < 0) {
+            insertAt(-index - 1, arena.add(bytes));
+        }
+
+        return comparisons;
+    }
+
+    /**
+     * Inserting word, which is already in arena and is not in chain. Used
+     * when words are moved between chains.
+     * 
+     * @param address
+     *            address of word in arena
+     */
+    public void insert(long address) {
+        int index = binarySearch(Arena.encode(arena.get(address)));
+
+        if (index < 0) {
+            insertAt(-index - 1, address);
+        }
+    }
+
+    /**
+     * Inserting address at index.
+     * 
+     * @param index
+     * @param address
+     */
+    private void insertAt(int index, long address) {
+        if (size == addresses.length) {
+            addresses = Arrays.copyOf(addresses, Math.max(2, size * 2));
+        }
+
+        System.arraycopy(addresses, index, addresses, index + 1, size - index);
+        addresses[index] = address;
+        size++;
+    }
+
+    /**
+     * Iterator decodes words from arena.
+     * 
+     * @see java.lang.Iterable#iterator()
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public String next() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+
+                return arena.get(addresses[index++]);
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * Removing word from chain. Word stays in arena.
+     * 
+     * @param word
+     * 
+     * @return amount of comparisons, if chain contained word; otherwise,
+     *         (-(amount of comparisons) - 1)
+     */
+    @Override
+    public int remove(String word) {
+        int index = binarySearch(Arena.encode(word));
+
+        if (index < 0) {
+            return -comparisons - 1;
+        }
+
+        System.arraycopy(addresses, index + 1, addresses, index, size - index
+                - 1);
+        size--;
+
+        return comparisons;
+    }
+
+    /**
+     * @return amount of words in chain
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+}
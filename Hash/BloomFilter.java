@@ -0,0 +1,120 @@
+/**
+ * Project Praca domowa 02 – hashing.
+ * Copyright Michał Szczygieł
+ * Created at Oct 24, 2013.
+ */
+
+/**
+ * 
+ * BloomFilter class, blocked Bloom filter for words. Every word sets
+ * {@link #PROBES} bits in one block of 512 bits, so checking a word reads
+ * only one cache line. Filter answers false only for words, which were never
+ * added. Bits can not be cleared, so removed words are still reported as
+ * possibly present.
+ * 
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ * 
+ */
+public class BloomFilter {
+
+    /**
+     * Amount of bits for every expected word, about 1% of false positives.
+     */
+    private static final int BITS_PER_WORD = 10;
+
+    /**
+     * Amount of longs in block.
+     */
+    private static final int BLOCK_LONGS = 8;
+
+    /**
+     * Amount of bits set for every word.
+     */
+    private static final int PROBES = 7;
+
+    /**
+     * Bits of filter, divided into blocks.
+     */
+    private long[] bits;
+
+    /**
+     * Amount of blocks.
+     */
+    private int blocks;
+
+    /**
+     * Constructor. Size of filter is counted from expected amount of words.
+     * 
+     * @param expectedWords
+     *            expected amount of words
+     */
+    public BloomFilter(long expectedWords) {
+        long size = Math.max(1, expectedWords) * BITS_PER_WORD
+                / (Long.SIZE * BLOCK_LONGS) + 1;
+        blocks = (int) Math.min(size, Integer.MAX_VALUE / BLOCK_LONGS);
+        bits = new long[blocks * BLOCK_LONGS];
+    }
+
+    /**
+     * Adding word to filter.
+     * 
+     * @param word
+     */
+    public void add(String word) {
+        long hash = HashFunctions.hash64(word, 0);
+        int block = block(hash);
+        int probe = (int) hash;
+
+        for (int i = 0; i < PROBES; i++) {
+            bits[block + ((probe >>> 6) & (BLOCK_LONGS - 1))] |= 1L << probe;
+            probe = next(probe);
+        }
+    }
+
+    /**
+     * Gets index of first long of block for word.
+     * 
+     * @param hash
+     *            hash of word
+     * 
+     * @return index of first long of block
+     */
+    private int block(long hash) {
+        return (int) (((hash >>> 32) * blocks) >>> 32) * BLOCK_LONGS;
+    }
+
+    /**
+     * Checking word.
+     * 
+     * @param word
+     * 
+     * @return false if word was never added, true if it may be added
+     */
+    public boolean mightContain(String word) {
+        long hash = HashFunctions.hash64(word, 0);
+        int block = block(hash);
+        int probe = (int) hash;
+
+        for (int i = 0; i < PROBES; i++) {
+            if ((bits[block + ((probe >>> 6) & (BLOCK_LONGS - 1))]
+                    & (1L << probe)) == 0) {
+                return false;
+            }
+
+            probe = next(probe);
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets next probe in block, 9 bits of probe choose bit in block.
+     * 
+     * @param probe
+     * 
+     * @return next probe
+     */
+    private static int next(int probe) {
+        return Integer.rotateRight(probe, 9) * 0x9e3779b9;
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * Project Praca domowa 02 – hashing.
+ * Copyright Michał Szczygieł
+ * Created at Oct 24, 2013.
+ */
+
+/**
+ * 
+ * Chain interface, representation of single bucket in {@link Hash}. Every
+ * operation returns amount of comparisons of words, so collisions can be
+ * compared between different representations.
+ * 
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ * 
+ */
+public interface Chain extends Iterable<String> {
+
+    /**
+     * Searching chain.
+     * 
+     * @param word
+     * 
+     * @return amount of comparisons, if chain contains word; otherwise,
+     *         (-(amount of comparisons) - 1)
+     */
+    int find(String word);
+
+    /**
+     * Inserting to chain, if chain does not contain word.
+     * 
+     * @param word
+     * 
+     * @return amount of comparisons
+     */
+    int insert(String word);
+
+    /**
+     * Removing word from chain.
+     * 
+     * @param word
+     * 
+     * @return amount of comparisons, if chain contained word; otherwise,
+     *         (-(amount of comparisons) - 1)
+     */
+    int remove(String word);
+
+    /**
+     * @return amount of words in chain
+     */
+    int size();
+}
@@ -0,0 +1,152 @@
+/**
+ * Project Praca domowa 02 – hashing.
+ * Copyright Michał Szczygieł
+ * Created at Oct 24, 2013.
+ */
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 
+ * ConcurrentHash class, thread safe hash table responsible for inserting,
+ * finding and deleting. Chains are divided into stripes, every stripe is
+ * guarded by its own lock, so threads working on different stripes do not
+ * wait for each other. Order of inserts into one chain depends on threads, so
+ * collision amount can differ from {@link Hash} for the same words.
+ * 
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ * 
+ */
+public class ConcurrentHash implements Table {
+
+    /**
+     * Amount of stripes for every available processor.
+     */
+    private static final int STRIPES_PER_PROCESSOR = 16;
+
+    /**
+     * Count collision, updated when insert method is called.
+     */
+    private final LongAdder collisionAmount = new LongAdder();
+
+    /**
+     * Variable contains data for hashes.
+     */
+    private final Chain[] hashTable;
+
+    /**
+     * Locks for stripes of chains.
+     */
+    private final Object[] locks;
+
+    /**
+     * Constructor. Create hashTable for ConcurrentHash class, with chains kept
+     * as sorted arrays.
+     * 
+     * @param hashSize
+     *            size of hash table
+     */
+    public ConcurrentHash(int hashSize) {
+        this(hashSize, Hash.SORTED);
+    }
+
+    /**
+     * Constructor. Create hashTable for ConcurrentHash class.
+     * 
+     * @param hashSize
+     *            size of hash table
+     * @param chainType
+     *            type of chains: {@link Hash#SORTED}, {@link Hash#TREE} or
+     *            {@link Hash#LIST}
+     */
+    public ConcurrentHash(int hashSize, String chainType) {
+        // Arena is not thread safe.
+        if (!Hash.isChainType(chainType) || chainType.equals(Hash.ARENA)) {
+            throw new IllegalArgumentException("Unknown chain : " + chainType);
+        }
+
+        hashTable = new Chain[hashSize];
+
+        for (int i = 0; i < hashSize; ++i) {
+            hashTable[i] = Hash.createChain(chainType, null);
+        }
+
+        int stripes = Math.min(hashSize, Runtime.getRuntime()
+                .availableProcessors() * STRIPES_PER_PROCESSOR);
+        locks = new Object[Math.max(1, stripes)];
+
+        for (int i = 0; i < locks.length; ++i) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Searching hash table.
+     * 
+     * @param word
+     * 
+     * @return true if hash contain word, false if not
+     */
+    @Override
+    public boolean find(String word) {
+        int hash = getHash(word);
+
+        synchronized (locks[hash % locks.length]) {
+            return hashTable[hash].find(word) >= 0;
+        }
+    }
+
+    /**
+     * Gets collision amount.
+     * 
+     * @return current collision count
+     */
+    @Override
+    public long getCollisionAmount() {
+        return collisionAmount.sum();
+    }
+
+    /**
+     * Gets index of proper chain of hashes.
+     * 
+     * @param word
+     * 
+     * @return index of hash chain
+     */
+    private int getHash(String word) {
+        return Hash.index(word.hashCode(), hashTable.length, false);
+    }
+
+    /**
+     * Inserting to chain, if collision happened increments collision.
+     * 
+     * @param word
+     * 
+     */
+    @Override
+    public void insert(String word) {
+        int hash = getHash(word);
+        int comparisons;
+
+        synchronized (locks[hash % locks.length]) {
+            comparisons = hashTable[hash].insert(word);
+        }
+
+        collisionAmount.add(comparisons);
+    }
+
+    /**
+     * Removing string from hash table.
+     * 
+     * @param word
+     * 
+     */
+    @Override
+    public void remove(String word) {
+        int hash = getHash(word);
+
+        synchronized (locks[hash % locks.length]) {
+            hashTable[hash].remove(word);
+        }
+    }
+}
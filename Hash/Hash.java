@@ -1,12 +1,20 @@
-import java.util.ArrayList;
-import java.util.LinkedList;
-
 /**
  * Project Praca domowa 02 – hashing.
  * Copyright Michał Szczygieł
  * Created at Oct 24, 2013.
  */
 
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Comparator;
+
 /**
  * 
  * Hash class, responsible for inserting, finding and deleting.
@@ -14,84 +22,218 @@ import java.util.LinkedList;
  * @author Michał Szczygieł <michal.szczygiel@wp.pl>
  * 
  */
-public class Hash {
+public class Hash implements Table {
+
+    /**
+     * Chain kept as sorted array of addresses of words stored outside of heap.
+     */
+    public static final String ARENA = "arena";
+
+    /**
+     * Chain kept as unsorted list.
+     */
+    public static final String LIST = "list";
+
+    /**
+     * Chain kept as sorted array.
+     */
+    public static final String SORTED = "sorted";
+
+    /**
+     * Chain kept as balanced tree.
+     */
+    public static final String TREE = "tree";
+
+    /**
+     * Maximal size of hash table, which is power of two.
+     */
+    private static final int MAX_POWER_OF_TWO = 1 << 30;
+
+    /**
+     * Maximal size of hash table.
+     */
+    private static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * Amount of chains moved from previous table on every insert.
+     */
+    private static final int REHASH_STEP = 4;
+
+    /**
+     * Arena with words for {@link #ARENA} chains, or null for other chains.
+     */
+    private Arena arena = null;
+
+    /**
+     * Type of chains in hash table.
+     */
+    private String chainType;
+
     /**
      * Count collision, updated when insert method is called.
      */
-    private int collisionAmount = 0;
+    private long collisionAmount = 0;
 
     /**
-     * Variable contains data for hashes.
+     * Amount of searches, which passed the filter, but word was not found.
      */
-    private ArrayList<LinkedList<String>> hashTable;
+    private long falsePositives = 0;
 
     /**
-     * Constructor. Create hashTable for Hash class.
+     * Filter checked before searching chains, or null if it is not used.
+     */
+    private BloomFilter filter = null;
+
+    /**
+     * Amount of searches, which found word.
+     */
+    private long findHits = 0;
+
+    /**
+     * Amount of searches, which did not find word.
+     */
+    private long findMisses = 0;
+
+    /**
+     * Amount of comparisons made by searches.
+     */
+    private long findProbes = 0;
+
+    /**
+     * Function counting hashes of words.
+     */
+    private HashFunction function;
+
+    /**
+     * True if size of table is power of two and index of chain is taken from
+     * lower bits of hash.
+     */
+    private boolean powerOfTwo;
+
+    /**
+     * Variable contains data for hashes. Chain is created, when first word is
+     * inserted into it.
+     */
+    private Chain[] hashTable;
+
+    /**
+     * Amount of inserts.
+     */
+    private long insertCount = 0;
+
+    /**
+     * Table is grown, when amount of words exceeds this factor times size of
+     * table. Zero means that size of table is fixed.
+     */
+    private double loadFactor = 0;
+
+    /**
+     * Previous table, which chains are moved to current one during growing,
+     * or null if table is not growing.
+     */
+    private Chain[] oldTable = null;
+
+    /**
+     * Index of next chain in previous table to move.
+     */
+    private int rehashIndex = 0;
+
+    /**
+     * Amount of removals.
+     */
+    private long removeCount = 0;
+
+    /**
+     * Amount of comparisons made by removals.
+     */
+    private long removeProbes = 0;
+
+    /**
+     * Amount of words in table.
+     */
+    private long wordAmount = 0;
+
+    /**
+     * Constructor. Create hashTable for Hash class, with chains kept as sorted
+     * arrays.
      * 
      * @param hashSize
      *            size of hash table
      */
     public Hash(int hashSize) {
-        hashTable = new ArrayList<LinkedList<String>>(hashSize);
-
-        for (int i = 0; i < hashSize; ++i) {
-            hashTable.add(new LinkedList<String>());
-        }
-    }
-
-    /**
-     * Binary Search for Hash table with few modifications for hash tables.
-     * Searches the specified list for the specified object using the binary
-     * search algorithm. The list must be sorted into ascending order according
-     * to the specified comparator (as by the sort(List, Comparator) method),
-     * prior to making this call. If it is not sorted, the results are
-     * undefined. If the list contains multiple elements equal to the specified
-     * object, there is no guarantee which one will be found. This method runs
-     * in log(n) time for a "random access" list (which provides
-     * near-constant-time positional access). If the specified list does not
-     * implement the RandomAccess interface and is large, this method will do an
-     * iterator-based binary search that performs O(n) link traversals and O(log
-     * n) element comparisons.
-     * 
-     * Parameters: list the list to be searched. key the key to be searched for.
-     * c the comparator by which the list is ordered. A null value indicates
-     * that the elements' natural ordering should be used. Returns: the index of
-     * the search key, if it is contained in the list; otherwise, (-(insertion
-     * point) - 1). The insertion point is defined as the point at which the key
-     * would be inserted into the list: the index of the first element greater
-     * than the key, or list.size() if all elements in the list are less than
-     * the specified key. Note that this guarantees that the return value will
-     * be >= 0 if and only if the key is found. Throws: ClassCastException - if
-     * the list contains elements that are not mutually comparable using the
-     * specified comparator, or the search key is not mutually comparable with
-     * the elements of the list using this comparator.
-     * 
-     * 
-     * @param list
-     * 
-     * @param item
-     * 
-     * @return the index of the search key
-     */
-    private int binarySearch(LinkedList<String> list, String word) {
-        int lower = 0;
-        int upper = list.size() - 1;
-
-        while (lower <= upper) {
-            int mid = (lower + upper) >>> 1;
-            int comparison = list.get(mid).compareTo(word);
-            collisionAmount++;
-
-            if (comparison < 0) {
-                lower = mid + 1;
-            } else if (comparison > 0) {
-                upper = mid - 1;
-            } else {
-                return mid;
-            }
+        this(hashSize, SORTED);
+    }
+
+    /**
+     * Constructor. Create hashTable for Hash class.
+     * 
+     * @param hashSize
+     *            size of hash table
+     * @param chainType
+     *            type of chains: {@link #SORTED}, {@link #TREE},
+     *            {@link #LIST} or {@link #ARENA}
+     */
+    public Hash(int hashSize, String chainType) {
+        this(hashSize, chainType, new HashFunctions.Java(), false);
+    }
+
+    /**
+     * Constructor. Create hashTable for Hash class.
+     * 
+     * @param hashSize
+     *            size of hash table
+     * @param chainType
+     *            type of chains: {@link #SORTED}, {@link #TREE},
+     *            {@link #LIST} or {@link #ARENA}
+     * @param function
+     *            function counting hashes of words
+     * @param powerOfTwo
+     *            true if size should be rounded up to power of two, and index
+     *            of chain taken from lower bits of hash
+     */
+    public Hash(int hashSize, String chainType, HashFunction function,
+            boolean powerOfTwo) {
+        if (!isChainType(chainType)) {
+            throw new IllegalArgumentException("Unknown chain : " + chainType);
+        }
+
+        this.chainType = chainType;
+        this.function = function;
+
+        if (chainType.equals(ARENA)) {
+            arena = new Arena();
+        }
+        this.powerOfTwo = powerOfTwo;
+
+        if (powerOfTwo) {
+            hashSize = hashSize <= 1 ? 1 : Integer.highestOneBit(Math.min(
+                    hashSize - 1, MAX_POWER_OF_TWO / 2) << 1);
         }
 
-        return -(lower + 1);
+        hashTable = new Chain[hashSize];
+    }
+
+    /**
+     * Creating empty chain of proper type.
+     * 
+     * @param chainType
+     *            type of chains: {@link #SORTED}, {@link #TREE},
+     *            {@link #LIST} or {@link #ARENA}
+     * @param arena
+     *            arena with words for {@link #ARENA} chains
+     * 
+     * @return new chain
+     */
+    static Chain createChain(String chainType, Arena arena) {
+        if (chainType.equals(ARENA)) {
+            return new ArenaChain(arena);
+        } else if (chainType.equals(LIST)) {
+            return new ListChain();
+        } else if (chainType.equals(TREE)) {
+            return new TreeChain();
+        } else {
+            return new SortedChain();
+        }
     }
 
     /**
@@ -101,9 +243,29 @@ public class Hash {
      * 
      * @return true if hash contain word, false if not
      */
+    @Override
     public boolean find(String word) {
-        LinkedList<String> hashChain = getHash(word);
-        return hashChain.contains(word);
+        if (filter != null && !filter.mightContain(word)) {
+            findMisses++;
+            return false;
+        }
+
+        Chain chain = getHash(word, false);
+        int comparisons = chain == null ? -1 : chain.find(word);
+        boolean found = comparisons >= 0;
+        findProbes += found ? comparisons : -comparisons - 1;
+
+        if (found) {
+            findHits++;
+        } else {
+            findMisses++;
+
+            if (filter != null) {
+                falsePositives++;
+            }
+        }
+
+        return found;
     }
 
     /**
@@ -111,37 +273,223 @@ public class Hash {
      * 
      * @return current collision count
      */
-    public int getCollisionAmount() {
+    @Override
+    public long getCollisionAmount() {
         return this.collisionAmount;
     }
 
     /**
-     * Gets proper array list of hashes.
+     * Gets amount of searches, which passed the filter, but word was not
+     * found. Removed words are counted here too, because filter can not
+     * forget them.
+     * 
+     * @return false positive count
+     */
+    public long getFalsePositives() {
+        return this.falsePositives;
+    }
+
+    /**
+     * Gets amount of searches, which found word.
+     * 
+     * @return hit count
+     */
+    public long getFindHits() {
+        return this.findHits;
+    }
+
+    /**
+     * Gets amount of searches, which did not find word, rejected by filter or
+     * not.
+     * 
+     * @return miss count
+     */
+    public long getFindMisses() {
+        return this.findMisses;
+    }
+
+    /**
+     * Gets amount of comparisons made by searches. Searches rejected by
+     * filter make no comparisons.
+     * 
+     * @return comparison count
+     */
+    public long getFindProbes() {
+        return this.findProbes;
+    }
+
+    /**
+     * Gets proper chain of hashes. During growing, chains which were not moved
+     * yet are taken from previous table.
      * 
      * @param word
      * 
-     * @return hash chain
+     * @param create
+     *            true if missing chain should be created
+     * 
+     * @return hash chain, or null if chain does not exist
+     */
+    private Chain getHash(String word, boolean create) {
+        int wordHash = function.hash(word);
+        Chain[] table = hashTable;
+        int hash = index(wordHash, hashTable.length, powerOfTwo);
+
+        if (oldTable != null) {
+            int oldHash = index(wordHash, oldTable.length, powerOfTwo);
+
+            if (oldHash >= rehashIndex) {
+                table = oldTable;
+                hash = oldHash;
+            }
+        }
+
+        if (table[hash] == null && create) {
+            table[hash] = createChain(chainType, arena);
+        }
+
+        return table[hash];
+    }
+
+    /**
+     * Gets distribution of lengths of chains.
+     * 
+     * @return array, where element with index i is amount of chains with
+     *         length i
+     */
+    public long[] getChainLengths() {
+        long[] lengths = new long[1];
+
+        for (Chain[] table : new Chain[][] { hashTable, oldTable }) {
+            for (int i = 0; table != null && i < table.length; i++) {
+                if (table == oldTable && i < rehashIndex) {
+                    continue;
+                }
+
+                int length = table[i] == null ? 0 : table[i].size();
+
+                if (length >= lengths.length) {
+                    lengths = Arrays.copyOf(lengths, length + 1);
+                }
+
+                lengths[length]++;
+            }
+        }
+
+        return lengths;
+    }
+
+    /**
+     * Gets amount of inserts. Comparisons made by inserts are collisions.
+     * 
+     * @return insert count
+     */
+    public long getInsertCount() {
+        return this.insertCount;
+    }
+
+    /**
+     * Gets amount of removals.
+     * 
+     * @return remove count
      */
-    private LinkedList<String> getHash(String word) {
-        int hash = Math.abs(word.hashCode()) % hashTable.size();
-        return hashTable.get(hash);
+    public long getRemoveCount() {
+        return this.removeCount;
     }
 
     /**
-     * Inserting to chain, if collision happened increments collision.
+     * Gets amount of comparisons made by removals.
+     * 
+     * @return comparison count
+     */
+    public long getRemoveProbes() {
+        return this.removeProbes;
+    }
+
+    /**
+     * Gets size of table. During growing, size of new table.
+     * 
+     * @return size of table
+     */
+    public int getTableSize() {
+        return hashTable.length;
+    }
+
+    /**
+     * Gets amount of words in table.
+     * 
+     * @return amount of words
+     */
+    public long getWordAmount() {
+        return this.wordAmount;
+    }
+
+    /**
+     * Gets index of chain for hash.
+     * 
+     * @param hash
+     *            hash of word
+     * @param length
+     *            size of table
+     * @param powerOfTwo
+     *            true if size of table is power of two
+     * 
+     * @return index of chain
+     */
+    static int index(int hash, int length, boolean powerOfTwo) {
+        if (powerOfTwo) {
+            return hash & (length - 1);
+        }
+
+        // Remainder is taken before absolute value, Math.abs does not work
+        // for Integer.MIN_VALUE.
+        return Math.abs(hash % length);
+    }
+
+    /**
+     * Inserting to chain, if collision happened increments collision. If
+     * table is growing, few chains are moved before.
      * 
      * @param word
      * 
      */
+    @Override
     public void insert(String word) {
+        if (oldTable != null) {
+            rehash(REHASH_STEP);
+        }
 
-        LinkedList<String> chain = getHash(word);
-        int index = binarySearch(chain, word);
+        if (filter != null) {
+            filter.add(word);
+        }
+
+        Chain chain = getHash(word, true);
+        int size = chain.size();
+        insertCount++;
+        collisionAmount += chain.insert(word);
+        wordAmount += chain.size() - size;
 
-        if (index < 0) {
-            chain.add(-index - 1, word);
+        if (oldTable == null && loadFactor > 0
+                && wordAmount > loadFactor * hashTable.length
+                && hashTable.length < (powerOfTwo ? MAX_POWER_OF_TWO
+                        : MAX_SIZE)) {
+            oldTable = hashTable;
+            rehashIndex = 0;
+            hashTable = new Chain[(int) Math.min(MAX_SIZE, 2L
+                    * oldTable.length + (powerOfTwo ? 0 : 1))];
         }
+    }
 
+    /**
+     * Checks if type of chains is known.
+     * 
+     * @param chainType
+     * 
+     * @return true if chainType is {@link #SORTED}, {@link #TREE},
+     *         {@link #LIST} or {@link #ARENA}
+     */
+    public static boolean isChainType(String chainType) {
+        return SORTED.equals(chainType) || TREE.equals(chainType)
+                || LIST.equals(chainType) || ARENA.equals(chainType);
     }
 
     /**
@@ -150,8 +498,198 @@ public class Hash {
      * @param word
      * 
      */
+    @Override
     public void remove(String word) {
-        LinkedList<String> chain = getHash(word);
-        chain.remove(word);
+        Chain chain = getHash(word, false);
+        int comparisons = chain == null ? -1 : chain.remove(word);
+        removeCount++;
+
+        if (comparisons >= 0) {
+            removeProbes += comparisons;
+            wordAmount--;
+        } else {
+            removeProbes += -comparisons - 1;
+        }
+    }
+
+    /**
+     * Moving chains from previous table to current one. Collisions are not
+     * counted, words were already inserted once.
+     * 
+     * @param step
+     *            amount of chains to move
+     */
+    private void rehash(int step) {
+        for (int i = 0; i < step && rehashIndex < oldTable.length; i++) {
+            Chain chain = oldTable[rehashIndex];
+            oldTable[rehashIndex++] = null;
+
+            if (chain instanceof ArenaChain) {
+                // Words are already in arena, only addresses are moved.
+                ArenaChain arenaChain = (ArenaChain) chain;
+
+                for (int j = 0; j < arenaChain.size(); j++) {
+                    long address = arenaChain.address(j);
+                    int hash = index(function.hash(arena.get(address)),
+                            hashTable.length, powerOfTwo);
+
+                    if (hashTable[hash] == null) {
+                        hashTable[hash] = createChain(chainType, arena);
+                    }
+
+                    ((ArenaChain) hashTable[hash]).insert(address);
+                }
+            } else if (chain != null) {
+                for (String word : chain) {
+                    int hash = index(function.hash(word), hashTable.length,
+                            powerOfTwo);
+
+                    if (hashTable[hash] == null) {
+                        hashTable[hash] = createChain(chainType, arena);
+                    }
+
+                    hashTable[hash].insert(word);
+                }
+            }
+        }
+
+        if (rehashIndex == oldTable.length) {
+            oldTable = null;
+        }
+    }
+
+    /**
+     * Saving table into snapshot, which can be mapped by {@link SnapshotHash}.
+     * Growing table is finished before. Words of every chain are encoded in
+     * UTF-8 and sorted as unsigned bytes, one chain at a time.
+     * 
+     * @param file
+     *            snapshot file
+     * 
+     * @throws IOException
+     */
+    public void save(File file) throws IOException {
+        String name = HashFunctions.nameOf(function);
+
+        if (name == null) {
+            throw new IllegalStateException("Unknown function : " + function);
+        }
+
+        if (oldTable != null) {
+            rehash(oldTable.length);
+        }
+
+        DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)));
+
+        try {
+            output.writeInt(SnapshotHash.MAGIC);
+            output.writeInt(SnapshotHash.VERSION);
+            output.writeUTF(name);
+            output.writeBoolean(powerOfTwo);
+            output.writeInt(hashTable.length);
+            output.writeLong(wordAmount);
+            output.writeLong(collisionAmount);
+
+            long words = 0;
+            output.writeLong(words);
+
+            for (Chain chain : hashTable) {
+                words += chain == null ? 0 : chain.size();
+                output.writeLong(words);
+            }
+
+            // Words start after header, directory and offsets.
+            long offset = SnapshotHash.headerSize(name) + 8L
+                    * (hashTable.length + 1) + 8 * (words + 1);
+            output.writeLong(offset);
+
+            // Words are written by second stream from their start, so every
+            // chain is encoded and sorted once, and only one chain is kept.
+            RandomAccessFile contents = new RandomAccessFile(file, "rw");
+            OutputStream contentsOutput = new BufferedOutputStream(
+                    Channels.newOutputStream(contents.getChannel().position(
+                            offset)));
+
+            try {
+                for (Chain chain : hashTable) {
+                    for (byte[] word : sortedWords(chain)) {
+                        offset += word.length;
+                        output.writeLong(offset);
+                        contentsOutput.write(word);
+                    }
+                }
+            } finally {
+                contentsOutput.close();
+                contents.close();
+            }
+        } finally {
+            output.close();
+        }
+    }
+
+    /**
+     * Setting Bloom filter checked by {@link #find(String)} before searching
+     * chains, so most of missing words are rejected without touching chain.
+     * Words already in table are added to filter.
+     * 
+     * @param expectedWords
+     *            expected amount of words, or 0 for table without filter
+     */
+    public void setFilter(long expectedWords) {
+        if (expectedWords <= 0) {
+            filter = null;
+            return;
+        }
+
+        filter = new BloomFilter(Math.max(expectedWords, wordAmount));
+
+        // Moved chains of previous table are already set to null.
+        for (Chain[] table : new Chain[][] { hashTable, oldTable }) {
+            for (int i = 0; table != null && i < table.length; i++) {
+                for (String word : table[i] == null ? Arrays.<String> asList()
+                        : table[i]) {
+                    filter.add(word);
+                }
+            }
+        }
+    }
+
+    /**
+     * Setting load factor. When amount of words exceeds load factor times size
+     * of table, table is doubled. Chains are moved to new table few on every
+     * insert, so no single insert moves all words.
+     * 
+     * @param loadFactor
+     *            load factor, or 0 for table with fixed size
+     */
+    public void setLoadFactor(double loadFactor) {
+        this.loadFactor = loadFactor;
+    }
+
+    /**
+     * Gets words of chain encoded in UTF-8, sorted as unsigned bytes.
+     * 
+     * @param chain
+     *            chain, or null for empty chain
+     * 
+     * @return sorted words
+     */
+    private static byte[][] sortedWords(Chain chain) {
+        byte[][] words = new byte[chain == null ? 0 : chain.size()][];
+        int i = 0;
+
+        for (String word : chain == null ? Arrays.<String> asList() : chain) {
+            words[i++] = Arena.encode(word);
+        }
+
+        Arrays.sort(words, new Comparator<byte[]>() {
+            @Override
+            public int compare(byte[] word1, byte[] word2) {
+                return SnapshotHash.compare(word1, word2);
+            }
+        });
+
+        return words;
     }
 }
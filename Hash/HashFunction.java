@@ -0,0 +1,24 @@
+/**
+ * Project Praca domowa 02 – hashing.
+ * Copyright Michał Szczygieł
+ * Created at Oct 24, 2013.
+ */
+
+/**
+ * 
+ * HashFunction interface, counts hash of word for {@link Hash}.
+ * 
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ * 
+ */
+public interface HashFunction {
+
+    /**
+     * Counting hash of word.
+     * 
+     * @param word
+     * 
+     * @return hash of word
+     */
+    int hash(String word);
+}
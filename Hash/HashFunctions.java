@@ -0,0 +1,259 @@
+/**
+ * Project Praca domowa 02 – hashing.
+ * Copyright Michał Szczygieł
+ * Created at Oct 24, 2013.
+ */
+
+/**
+ * 
+ * HashFunctions class, contains implementations of {@link HashFunction}. All
+ * functions work on UTF-16 characters of word, so no encoding is needed.
+ * 
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ * 
+ */
+public final class HashFunctions {
+
+    /**
+     * FNV-1a function, every character is taken as two bytes.
+     */
+    public static class Fnv implements HashFunction {
+
+        /**
+         * Offset basis of 32 bit FNV.
+         */
+        private static final int OFFSET = 0x811c9dc5;
+
+        /**
+         * Prime of 32 bit FNV.
+         */
+        private static final int PRIME = 0x01000193;
+
+        /**
+         * @see HashFunction#hash(java.lang.String)
+         */
+        @Override
+        public int hash(String word) {
+            int hash = OFFSET;
+
+            for (int i = 0; i < word.length(); i++) {
+                char character = word.charAt(i);
+                hash = (hash ^ (character & 0xff)) * PRIME;
+                hash = (hash ^ (character >>> 8)) * PRIME;
+            }
+
+            return hash;
+        }
+    }
+
+    /**
+     * Function from {@link String#hashCode()}.
+     */
+    public static class Java implements HashFunction {
+
+        /**
+         * @see HashFunction#hash(java.lang.String)
+         */
+        @Override
+        public int hash(String word) {
+            return word.hashCode();
+        }
+    }
+
+    /**
+     * MurmurHash3 32 bit function, every two characters are taken as one
+     * block.
+     */
+    public static class Murmur implements HashFunction {
+
+        /**
+         * First constant of MurmurHash3.
+         */
+        private static final int C1 = 0xcc9e2d51;
+
+        /**
+         * Second constant of MurmurHash3.
+         */
+        private static final int C2 = 0x1b873593;
+
+        /**
+         * Mixing block into hash.
+         * 
+         * @param block
+         * 
+         * @return mixed block
+         */
+        private static int mixBlock(int block) {
+            return Integer.rotateLeft(block * C1, 15) * C2;
+        }
+
+        /**
+         * @see HashFunction#hash(java.lang.String)
+         */
+        @Override
+        public int hash(String word) {
+            int hash = 0;
+            int length = word.length();
+
+            for (int i = 1; i < length; i += 2) {
+                int block = word.charAt(i - 1) | (word.charAt(i) << 16);
+                hash = Integer.rotateLeft(hash ^ mixBlock(block), 13) * 5
+                        + 0xe6546b64;
+            }
+
+            if ((length & 1) == 1) {
+                hash ^= mixBlock(word.charAt(length - 1));
+            }
+
+            hash ^= 2 * length;
+            hash ^= hash >>> 16;
+            hash *= 0x85ebca6b;
+            hash ^= hash >>> 13;
+            hash *= 0xc2b2ae35;
+            hash ^= hash >>> 16;
+
+            return hash;
+        }
+    }
+
+    /**
+     * Function in style of xxHash32 for short input, every two characters are
+     * taken as one block.
+     */
+    public static class Xx implements HashFunction {
+
+        /**
+         * Second prime of xxHash32.
+         */
+        private static final int PRIME2 = 0x85ebca77;
+
+        /**
+         * Third prime of xxHash32.
+         */
+        private static final int PRIME3 = 0xc2b2ae3d;
+
+        /**
+         * Fourth prime of xxHash32.
+         */
+        private static final int PRIME4 = 0x27d4eb2f;
+
+        /**
+         * Fifth prime of xxHash32.
+         */
+        private static final int PRIME5 = 0x165667b1;
+
+        /**
+         * @see HashFunction#hash(java.lang.String)
+         */
+        @Override
+        public int hash(String word) {
+            int length = word.length();
+            int hash = PRIME5 + 2 * length;
+
+            for (int i = 1; i < length; i += 2) {
+                int block = word.charAt(i - 1) | (word.charAt(i) << 16);
+                hash = Integer.rotateLeft(hash + block * PRIME3, 17) * PRIME4;
+            }
+
+            if ((length & 1) == 1) {
+                hash = Integer.rotateLeft(hash + word.charAt(length - 1)
+                        * PRIME5, 11) * PRIME2;
+            }
+
+            hash ^= hash >>> 15;
+            hash *= PRIME2;
+            hash ^= hash >>> 13;
+            hash *= PRIME3;
+            hash ^= hash >>> 16;
+
+            return hash;
+        }
+    }
+
+    /**
+     * Names of all functions.
+     */
+    public static final String[] NAMES = { "java", "fnv", "murmur", "xx" };
+
+    /**
+     * Private constructor, class contains only static members.
+     */
+    private HashFunctions() {
+    }
+
+    /**
+     * Creating function by name.
+     * 
+     * @param name
+     *            one of {@link #NAMES}
+     * 
+     * @return hash function, or null if name is not known
+     */
+    public static HashFunction forName(String name) {
+        if (name.equals("java")) {
+            return new Java();
+        } else if (name.equals("fnv")) {
+            return new Fnv();
+        } else if (name.equals("murmur")) {
+            return new Murmur();
+        } else if (name.equals("xx")) {
+            return new Xx();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Counting 64 bit hash of word, FNV-1a with final mixing, so both halves
+     * depend on all characters.
+     * 
+     * @param word
+     * @param seed
+     *            seed mixed into offset basis, 0 for plain FNV-1a
+     * 
+     * @return hash of word
+     */
+    public static long hash64(String word, long seed) {
+        long hash = 0xcbf29ce484222325L ^ seed;
+
+        for (int i = 0; i < word.length(); i++) {
+            hash = (hash ^ word.charAt(i)) * 0x100000001b3L;
+        }
+
+        return mix64(hash);
+    }
+
+    /**
+     * Mixing bits of 64 bit value, finalizer of MurmurHash3.
+     * 
+     * @param value
+     * 
+     * @return mixed value
+     */
+    public static long mix64(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+
+        return value;
+    }
+
+    /**
+     * Gets name of function.
+     * 
+     * @param function
+     * 
+     * @return one of {@link #NAMES}, or null if function is not known
+     */
+    public static String nameOf(HashFunction function) {
+        for (String name : NAMES) {
+            if (forName(name).getClass() == function.getClass()) {
+                return name;
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,222 @@
+/**
+ * Project Praca domowa 02 – hashing.
+ * Copyright Michał Szczygieł
+ * Created at Oct 24, 2013.
+ */
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * 
+ * HashStats class, statistics of {@link Hash}, which can be registered in JMX
+ * or printed. Hash only increments counters, so statistics can stay on under
+ * load. Distribution of lengths of chains is counted when it is read.
+ * Statistics are read without locking, so values read during inserting by
+ * other thread are approximate.
+ * 
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ * 
+ */
+public class HashStats implements HashStatsMBean {
+
+    /**
+     * Table with statistics.
+     */
+    private Hash hash;
+
+    /**
+     * Constructor.
+     * 
+     * @param hash
+     *            table with statistics
+     */
+    public HashStats(Hash hash) {
+        this.hash = hash;
+    }
+
+    /**
+     * Counting average, zero when there were no operations.
+     * 
+     * @param sum
+     * @param count
+     * 
+     * @return average
+     */
+    private static double average(long sum, long count) {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Printing statistics.
+     * 
+     * @param output
+     */
+    public void dump(PrintStream output) {
+        long[] lengths = getChainLengths();
+
+        output.println("Rozmiar tablicy : " + getTableSize());
+        output.println("Ilość słów : " + getWordAmount());
+        output.println(String.format("Współczynnik wypełnienia : %.3f",
+                getLoadFactor()));
+        output.println("Ilość kolizji : " + getCollisionAmount());
+        output.println("Najdłuższy łańcuch : " + (lengths.length - 1));
+        output.println(String.format("Porównania na wstawienie : %.3f",
+                getAverageInsertProbes()));
+        output.println(String.format("Porównania na wyszukanie : %.3f",
+                getAverageFindProbes()));
+        output.println(String.format("Porównania na usunięcie : %.3f",
+                getAverageRemoveProbes()));
+        output.println("Znalezione : " + getFindHits());
+        output.println("Nieznalezione : " + getFindMisses());
+        output.println("Fałszywie pozytywne : " + getFalsePositives());
+
+        for (int i = 0; i < lengths.length; i++) {
+            if (lengths[i] > 0) {
+                output.println(i + " : " + lengths[i]);
+            }
+        }
+    }
+
+    /**
+     * @see HashStatsMBean#getAverageFindProbes()
+     */
+    @Override
+    public double getAverageFindProbes() {
+        return average(hash.getFindProbes(), getFindCount());
+    }
+
+    /**
+     * @see HashStatsMBean#getAverageInsertProbes()
+     */
+    @Override
+    public double getAverageInsertProbes() {
+        return average(hash.getCollisionAmount(), hash.getInsertCount());
+    }
+
+    /**
+     * @see HashStatsMBean#getAverageRemoveProbes()
+     */
+    @Override
+    public double getAverageRemoveProbes() {
+        return average(hash.getRemoveProbes(), hash.getRemoveCount());
+    }
+
+    /**
+     * @see HashStatsMBean#getChainLengths()
+     */
+    @Override
+    public long[] getChainLengths() {
+        return hash.getChainLengths();
+    }
+
+    /**
+     * @see HashStatsMBean#getCollisionAmount()
+     */
+    @Override
+    public long getCollisionAmount() {
+        return hash.getCollisionAmount();
+    }
+
+    /**
+     * @see HashStatsMBean#getFalsePositives()
+     */
+    @Override
+    public long getFalsePositives() {
+        return hash.getFalsePositives();
+    }
+
+    /**
+     * @see HashStatsMBean#getFindCount()
+     */
+    @Override
+    public long getFindCount() {
+        return hash.getFindHits() + hash.getFindMisses();
+    }
+
+    /**
+     * @see HashStatsMBean#getFindHits()
+     */
+    @Override
+    public long getFindHits() {
+        return hash.getFindHits();
+    }
+
+    /**
+     * @see HashStatsMBean#getFindMisses()
+     */
+    @Override
+    public long getFindMisses() {
+        return hash.getFindMisses();
+    }
+
+    /**
+     * @see HashStatsMBean#getInsertCount()
+     */
+    @Override
+    public long getInsertCount() {
+        return hash.getInsertCount();
+    }
+
+    /**
+     * @see HashStatsMBean#getLoadFactor()
+     */
+    @Override
+    public double getLoadFactor() {
+        return (double) hash.getWordAmount() / hash.getTableSize();
+    }
+
+    /**
+     * @see HashStatsMBean#getMaxChainLength()
+     */
+    @Override
+    public int getMaxChainLength() {
+        return getChainLengths().length - 1;
+    }
+
+    /**
+     * @see HashStatsMBean#getRemoveCount()
+     */
+    @Override
+    public long getRemoveCount() {
+        return hash.getRemoveCount();
+    }
+
+    /**
+     * @see HashStatsMBean#getTableSize()
+     */
+    @Override
+    public int getTableSize() {
+        return hash.getTableSize();
+    }
+
+    /**
+     * @see HashStatsMBean#getWordAmount()
+     */
+    @Override
+    public long getWordAmount() {
+        return hash.getWordAmount();
+    }
+
+    /**
+     * Registering statistics in platform MBean server.
+     * 
+     * @param name
+     *            name of table, used as name property of MBean
+     * 
+     * @return name of registered MBean
+     * 
+     * @throws JMException
+     *             if MBean can not be registered
+     */
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = new ObjectName("Hashing:type=Hash,name="
+                + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+                objectName);
+        return objectName;
+    }
+}
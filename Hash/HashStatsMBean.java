@@ -0,0 +1,93 @@
+/**
+ * Project Praca domowa 02 – hashing.
+ * Copyright Michał Szczygieł
+ * Created at Oct 24, 2013.
+ */
+
+/**
+ * 
+ * Management interface of {@link HashStats}, statistics of {@link Hash}
+ * visible in JMX.
+ * 
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ * 
+ */
+public interface HashStatsMBean {
+
+    /**
+     * @return average amount of comparisons made by search
+     */
+    double getAverageFindProbes();
+
+    /**
+     * @return average amount of comparisons made by insert
+     */
+    double getAverageInsertProbes();
+
+    /**
+     * @return average amount of comparisons made by removal
+     */
+    double getAverageRemoveProbes();
+
+    /**
+     * @return array, where element with index i is amount of chains with
+     *         length i
+     */
+    long[] getChainLengths();
+
+    /**
+     * @return collision count
+     */
+    long getCollisionAmount();
+
+    /**
+     * @return amount of searches, which passed the filter, but word was not
+     *         found
+     */
+    long getFalsePositives();
+
+    /**
+     * @return amount of searches
+     */
+    long getFindCount();
+
+    /**
+     * @return amount of searches, which found word
+     */
+    long getFindHits();
+
+    /**
+     * @return amount of searches, which did not find word
+     */
+    long getFindMisses();
+
+    /**
+     * @return amount of inserts
+     */
+    long getInsertCount();
+
+    /**
+     * @return amount of words divided by size of table
+     */
+    double getLoadFactor();
+
+    /**
+     * @return length of the longest chain
+     */
+    int getMaxChainLength();
+
+    /**
+     * @return amount of removals
+     */
+    long getRemoveCount();
+
+    /**
+     * @return size of table
+     */
+    int getTableSize();
+
+    /**
+     * @return amount of words in table
+     */
+    long getWordAmount();
+}
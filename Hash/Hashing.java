@@ -1,7 +1,18 @@
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.LinkedList;
-import java.util.Scanner;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
 
 /**
  * Project Praca domowa 02 – hashing.
@@ -17,57 +28,500 @@ import java.util.Scanner;
  */
 public final class Hashing {
     /**
-     * Inserting LinkedList of strings into hash table.
+     * Inserting lines of file into hash table. Lines are read from file
+     * mapped into memory and inserted at once, without keeping them in list.
      * 
      * @param hash
      * 
-     * @param list
+     * @param file
+     * 
+     * @param start
+     *            start of part of the file
+     * @param end
+     *            end of part of the file
      * 
+     * @throws IOException
      */
-    private static void chaining(Hash hash, LinkedList<String> list) {
-        for (String string : list) {
-            hash.insert(string);
+    private static void chaining(Table hash, File file, long start, long end)
+            throws IOException {
+        LineReader reader = new LineReader(file, start, end,
+                Charset.defaultCharset());
+
+        try {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                hash.insert(line);
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Creating hash table depending on options.
+     * 
+     * @param hashSize
+     *            size of hash table
+     * @param options
+     *            -open for open addressing table, -chain with type of chains
+     *            (sorted, tree, list, arena), -concurrent for thread safe
+     *            table, -grow with load factor for growing table, -function
+     *            with name of hash function, -pow2 for size of table rounded
+     *            to power of two, -filter with expected amount of words for
+     *            Bloom filter checked before searching chains
+     * 
+     * @return hash table, or null if options are not correct
+     */
+    private static Table createTable(int hashSize, String... options) {
+        boolean open = false;
+        boolean concurrent = false;
+        boolean powerOfTwo = false;
+        double loadFactor = 0;
+        long expectedWords = 0;
+        String chainType = Hash.SORTED;
+        HashFunction function = new HashFunctions.Java();
+
+        for (int i = 0; i < options.length; i++) {
+            if (options[i].equals("-open")) {
+                open = true;
+            } else if (options[i].equals("-concurrent")) {
+                concurrent = true;
+            } else if (options[i].equals("-chain") && i + 1 < options.length
+                    && Hash.isChainType(options[i + 1])) {
+                chainType = options[++i];
+            } else if (options[i].equals("-grow") && i + 1 < options.length) {
+                loadFactor = Double.parseDouble(options[++i]);
+            } else if (options[i].equals("-function")
+                    && i + 1 < options.length
+                    && HashFunctions.forName(options[i + 1]) != null) {
+                function = HashFunctions.forName(options[++i]);
+            } else if (options[i].equals("-pow2")) {
+                powerOfTwo = true;
+            } else if (options[i].equals("-filter")
+                    && i + 1 < options.length) {
+                expectedWords = Long.parseLong(options[++i]);
+            } else {
+                return null;
+            }
+        }
+
+        boolean custom = loadFactor > 0 || powerOfTwo || expectedWords > 0
+                || !(function instanceof HashFunctions.Java);
+
+        if ((open || concurrent) && (open == concurrent || custom)
+                || (concurrent && chainType.equals(Hash.ARENA))) {
+            return null;
+        } else if (open) {
+            return new OpenHash(hashSize);
+        } else if (concurrent) {
+            return new ConcurrentHash(hashSize, chainType);
+        } else {
+            Hash hash = new Hash(hashSize, chainType, function, powerOfTwo);
+            hash.setLoadFactor(loadFactor);
+            hash.setFilter(expectedWords);
+            return hash;
+        }
+    }
+
+    /**
+     * Searching lines of file in hash table, printing amount of found and not
+     * found words. For table with filter, amount of words, which passed the
+     * filter, but were not found, is printed too.
+     * 
+     * @param hash
+     * 
+     * @param file
+     *            file with words to find
+     * 
+     * @throws IOException
+     */
+    private static void finding(Table hash, File file) throws IOException {
+        long found = 0;
+        long missing = 0;
+        LineReader reader = new LineReader(file, 0, Long.MAX_VALUE,
+                Charset.defaultCharset());
+
+        try {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                if (hash.find(line)) {
+                    found++;
+                } else {
+                    missing++;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        System.out.println("Znalezione : " + found);
+        System.out.println("Nieznalezione : " + missing);
+
+        if (hash instanceof Hash) {
+            System.out.println("Fałszywie pozytywne : "
+                    + ((Hash) hash).getFalsePositives());
         }
     }
 
     /**
-     * Main method. Executing and solving the problem. Should have only one
-     * parameter: -file name. -size of hash table.
+     * Searching words in snapshot mapped from file.
+     * 
+     * @param file
+     *            snapshot file written by {@link Hash#save(File)}
+     * @param words
+     *            words to find
+     * 
+     * @throws IOException
+     */
+    private static void load(File file, String... words) throws IOException {
+        SnapshotHash hash = new SnapshotHash(file);
+
+        System.out.println("Ilość kolizji : " + hash.getCollisionAmount());
+
+        for (String word : words) {
+            System.out.println(word + " : " + (hash.find(word) ? "tak" : "nie"));
+        }
+    }
+
+    /**
+     * Registering statistics of table in JMX, with path of file as name, and
+     * printing them on standard error every period.
+     * 
+     * @param hash
+     * 
+     * @param file
+     *            file with words inserted into table
+     * @param period
+     *            period of printing in seconds
+     * 
+     * @return executor printing statistics, to be shut down by caller
+     * 
+     * @throws JMException
+     */
+    private static ScheduledExecutorService monitor(Hash hash, File file,
+            long period) throws JMException {
+        final HashStats stats = new HashStats(hash);
+        stats.register(file.getPath());
+        ScheduledExecutorService executor = Executors
+                .newSingleThreadScheduledExecutor();
+
+        executor.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                stats.dump(System.err);
+            }
+        }, period, period, TimeUnit.SECONDS);
+
+        return executor;
+    }
+
+    /**
+     * Main method. Executing and solving the problem. Should have parameters:
+     * -file name. -size of hash table. And optional: -open, to use open
+     * addressing table, -chain sorted|tree|list|arena, to choose type of
+     * chains, -concurrent, to insert words by all available processors, -grow
+     * load_factor, to grow table when it is filled, -function
+     * java|fnv|murmur|xx, to choose hash function, -pow2, to use table with
+     * size of power of two, -filter expected_words, to reject missing words
+     * by Bloom filter, -report, to print distribution of lengths of chains
+     * for every hash function, or only for function chosen by -function,
+     * -find words_file, to search lines of file after inserting, -stats, to
+     * print statistics of table, -monitor seconds, to register statistics in
+     * JMX and print them on standard error every period, -save
+     * snapshot_file, to save table into snapshot. Saved snapshot is searched
+     * with parameters: -load snapshot_file words. Minimal perfect hash is
+     * built with parameters: -file name, -perfect. Collisions for range of
+     * sizes are printed with parameters: -file name, -sweep, -the smallest
+     * size, -the greatest size, and optional: -step, -function
+     * java|fnv|murmur|xx.
      * 
      * @param args
      * 
-     * @throws FileNotFoundException
+     * @throws IOException
+     * @throws InterruptedException
+     * @throws ExecutionException
+     * @throws JMException
      */
-    public static void main(String... args) throws FileNotFoundException {
-        if (args.length == 2) {
-            LinkedList<String> strings = readHashFile(new File(args[0]));
-            Hash hash = new Hash(Integer.parseInt(args[1]));
-            chaining(hash, strings);
+    public static void main(String... args) throws IOException,
+            InterruptedException, ExecutionException, JMException {
+        if (args.length >= 2 && args[0].equals("-load")) {
+            load(new File(args[1]), Arrays.copyOfRange(args, 2, args.length));
+        } else if (args.length == 2 && args[1].equals("-perfect")) {
+            perfect(new File(args[0]));
+        } else if (args.length >= 4 && args[1].equals("-sweep")) {
+            sweep(new File(args[0]), Arrays.copyOfRange(args, 2, args.length));
+        } else if (args.length >= 3
+                && args[args.length - 1].equals("-report")) {
+            report(new File(args[0]), Integer.parseInt(args[1]),
+                    Arrays.copyOfRange(args, 2, args.length - 1));
+        } else if (args.length >= 2) {
+            File snapshot = null;
+            int end = args.length;
 
-            System.out.println("Ilość kolizji : " + hash.getCollisionAmount());
+            if (end >= 4 && args[end - 2].equals("-save")) {
+                snapshot = new File(args[end - 1]);
+                end -= 2;
+            }
+
+            long period = 0;
+
+            if (end >= 4 && args[end - 2].equals("-monitor")) {
+                period = Long.parseLong(args[end - 1]);
+                end -= 2;
+            }
+
+            boolean stats = end >= 3 && args[end - 1].equals("-stats");
+
+            if (stats) {
+                end--;
+            }
+
+            File queries = null;
+
+            if (end >= 4 && args[end - 2].equals("-find")) {
+                queries = new File(args[end - 1]);
+                end -= 2;
+            }
+
+            Table hash = createTable(Integer.parseInt(args[1]),
+                    Arrays.copyOfRange(args, 2, end));
+
+            if (hash != null && period >= 0
+                    && (snapshot == null && !stats && period == 0
+                            || hash instanceof Hash)) {
+                File file = new File(args[0]);
+                ScheduledExecutorService monitor = period > 0 ? monitor(
+                        (Hash) hash, file, period) : null;
+
+                try {
+                    if (hash instanceof ConcurrentHash) {
+                        parallelChaining(hash, file);
+                    } else {
+                        chaining(hash, file, 0, Long.MAX_VALUE);
+                    }
+
+                    if (queries != null) {
+                        finding(hash, queries);
+                    }
+                } finally {
+                    if (monitor != null) {
+                        monitor.shutdownNow();
+                    }
+                }
+
+                if (stats) {
+                    new HashStats((Hash) hash).dump(System.out);
+                } else {
+                    System.out.println("Ilość kolizji : "
+                            + hash.getCollisionAmount());
+                }
+
+                if (snapshot != null) {
+                    ((Hash) hash).save(snapshot);
+                }
+            }
         }
     }
 
     /**
-     * Reading the hash table from file.
+     * Inserting lines of file into thread safe hash table. File is split into
+     * equal parts, one for every available processor.
      * 
-     * @param filePath
+     * @param hash
      * 
-     * @return LinkedList of hash table
+     * @param file
      * 
-     * @throws FileNotFoundException
+     * @throws InterruptedException
+     * @throws ExecutionException
      */
-    private static LinkedList<String> readHashFile(File file)
-            throws FileNotFoundException {
-        LinkedList<String> hash = new LinkedList<String>();
+    private static void parallelChaining(final Table hash, final File file)
+            throws InterruptedException, ExecutionException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        long part = Math.max(1, (file.length() + threads - 1) / threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> results = new ArrayList<Future<?>>(threads);
+
+        try {
+            for (long i = 0; i < file.length(); i += part) {
+                final long start = i;
+                final long end = i + part;
+
+                results.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws IOException {
+                        chaining(hash, file, start, end);
+                        return null;
+                    }
+                }));
+            }
 
-        Scanner scanner = new Scanner(file);
-        while (scanner.hasNextLine()) {
-            hash.add(scanner.nextLine());
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
         }
+    }
 
-        scanner.close();
+    /**
+     * Building minimal perfect hash from lines of file, printing time of
+     * building and amount of bits per word.
+     * 
+     * @param file
+     *            file with words
+     * 
+     * @throws IOException
+     */
+    private static void perfect(File file) throws IOException {
+        List<String> words = readWords(file);
+        long start = System.nanoTime();
+        PerfectHash hash = new PerfectHash(words);
+        long time = System.nanoTime() - start;
+
+        System.out.println("Ilość kolizji : " + hash.getCollisionAmount());
+        System.out.println(String.format("Czas budowania : %.3f ms",
+                time / 1e6));
+        System.out.println(String.format("Bitów na słowo : %.2f",
+                hash.getBitsPerKey()));
+    }
 
-        return hash;
+    /**
+     * Reading all lines of file.
+     * 
+     * @param file
+     *            file with words
+     * 
+     * @return lines of file
+     * 
+     * @throws IOException
+     */
+    private static List<String> readWords(File file) throws IOException {
+        List<String> words = new ArrayList<String>();
+        LineReader reader = new LineReader(file, 0, Long.MAX_VALUE,
+                Charset.defaultCharset());
+
+        try {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                words.add(line);
+            }
+        } finally {
+            reader.close();
+        }
+
+        return words;
+    }
+
+    /**
+     * Printing distribution of lengths of chains for every hash function, or
+     * only for function chosen in options.
+     * 
+     * @param file
+     *            file with words
+     * @param hashSize
+     *            size of hash table
+     * @param options
+     *            options of hash table, as for {@link #createTable}
+     * 
+     * @throws IOException
+     */
+    private static void report(File file, int hashSize, String... options)
+            throws IOException {
+        List<String> names = Arrays.asList(HashFunctions.NAMES);
+        int chosen = Arrays.asList(options).indexOf("-function");
+
+        if (chosen >= 0) {
+            if (chosen + 1 == options.length) {
+                return;
+            }
+
+            // Only function chosen in options is reported.
+            names = Arrays.asList(options[chosen + 1]);
+            String[] otherOptions = new String[options.length - 2];
+            System.arraycopy(options, 0, otherOptions, 0, chosen);
+            System.arraycopy(options, chosen + 2, otherOptions, chosen,
+                    otherOptions.length - chosen);
+            options = otherOptions;
+        }
+
+        for (String name : names) {
+            String[] functionOptions = Arrays.copyOf(options,
+                    options.length + 2);
+            functionOptions[options.length] = "-function";
+            functionOptions[options.length + 1] = name;
+            Table table = createTable(hashSize, functionOptions);
+
+            if (!(table instanceof Hash)) {
+                return;
+            }
+
+            Hash hash = (Hash) table;
+            chaining(hash, file, 0, Long.MAX_VALUE);
+            long[] lengths = hash.getChainLengths();
+
+            System.out.println("Funkcja : " + name);
+            System.out.println("Ilość kolizji : " + hash.getCollisionAmount());
+            System.out.println("Najdłuższy łańcuch : " + (lengths.length - 1));
+
+            for (int i = 0; i < lengths.length; i++) {
+                if (lengths[i] > 0) {
+                    System.out.println(i + " : " + lengths[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Printing collisions for range of sizes of table. File is read once.
+     * 
+     * @param file
+     *            file with words
+     * @param options
+     *            the smallest size, the greatest size, optional step between
+     *            sizes, and optional -function with name of hash function
+     * 
+     * @throws IOException
+     * @throws InterruptedException
+     * @throws ExecutionException
+     */
+    private static void sweep(File file, String... options)
+            throws IOException, InterruptedException, ExecutionException {
+        int from = Integer.parseInt(options[0]);
+        int to = Integer.parseInt(options[1]);
+        int step = 1;
+        HashFunction function = new HashFunctions.Java();
+
+        for (int i = 2; i < options.length; i++) {
+            if (options[i].equals("-function") && i + 1 < options.length
+                    && HashFunctions.forName(options[i + 1]) != null) {
+                function = HashFunctions.forName(options[++i]);
+            } else if (i == 2) {
+                step = Integer.parseInt(options[i]);
+            } else {
+                return;
+            }
+        }
+
+        if (from < 1 || to < from || step < 1) {
+            return;
+        }
+
+        int[] hashSizes = new int[(int) (((long) to - from) / step + 1)];
+
+        for (int i = 0; i < hashSizes.length; i++) {
+            hashSizes[i] = from + i * step;
+        }
+
+        long[] collisionAmounts = new Sweep(readWords(file), function)
+                .collisions(hashSizes);
+
+        System.out.println("rozmiar; kolizje");
+
+        for (int i = 0; i < hashSizes.length; i++) {
+            System.out.println(hashSizes[i] + "; " + collisionAmounts[i]);
+        }
     }
 }
@@ -0,0 +1,170 @@
+/**
+ * Project Praca domowa 02 – hashing.
+ * Copyright Michał Szczygieł
+ * Created at Oct 24, 2013.
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * 
+ * LineReader class, reads lines from part of file mapped into memory. Part
+ * contains lines, which start inside of it, so file can be read in many parts
+ * at once. Lines are ended by \n or \r\n.
+ * 
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ * 
+ */
+public class LineReader {
+
+    /**
+     * Maximal size of one mapped region of the file.
+     */
+    private static final long MAP_SIZE = 1 << 30;
+
+    /**
+     * Currently mapped region of the file.
+     */
+    private MappedByteBuffer buffer = null;
+
+    /**
+     * Channel of the file.
+     */
+    private FileChannel channel;
+
+    /**
+     * Charset of the file.
+     */
+    private Charset charset;
+
+    /**
+     * End of part of the file.
+     */
+    private long end;
+
+    /**
+     * Bytes of current line.
+     */
+    private byte[] line = new byte[64];
+
+    /**
+     * Position in file, where current region starts.
+     */
+    private long position;
+
+    /**
+     * Size of the file.
+     */
+    private long size;
+
+    /**
+     * Constructor. Opens part of file to read lines.
+     * 
+     * @param file
+     * @param start
+     *            start of part of the file
+     * @param end
+     *            end of part of the file
+     * @param charset
+     *            charset of the file
+     * 
+     * @throws IOException
+     */
+    public LineReader(File file, long start, long end, Charset charset)
+            throws IOException {
+        this.channel = new FileInputStream(file).getChannel();
+        this.charset = charset;
+        this.size = channel.size();
+        this.end = Math.min(end, size);
+        this.position = Math.max(0, start - 1);
+
+        // Line, which started before this part, belongs to previous part.
+        if (start > 0) {
+            int value;
+
+            do {
+                value = read();
+            } while (value >= 0 && value != '\n');
+        }
+    }
+
+    /**
+     * Closes the file.
+     * 
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        buffer = null;
+        channel.close();
+    }
+
+    /**
+     * Gets position in file of next byte to read.
+     * 
+     * @return position in file
+     */
+    private long offset() {
+        return buffer == null ? position : position - buffer.remaining();
+    }
+
+    /**
+     * Reads next byte from the file. Maps next region of the file if current
+     * one is finished.
+     * 
+     * @return the next byte, or -1 if end of file.
+     * 
+     * @throws IOException
+     */
+    private int read() throws IOException {
+        if (buffer == null || !buffer.hasRemaining()) {
+            if (position >= size) {
+                return -1;
+            }
+
+            long length = Math.min(size - position, MAP_SIZE);
+            buffer = channel.map(MapMode.READ_ONLY, position, length);
+            position += length;
+        }
+
+        return buffer.get() & 0xff;
+    }
+
+    /**
+     * Reads next line from part of the file.
+     * 
+     * @return line without end of line, or null if there are no more lines in
+     *         this part.
+     * 
+     * @throws IOException
+     */
+    public String readLine() throws IOException {
+        if (offset() >= end) {
+            return null;
+        }
+
+        int length = 0;
+        int value = read();
+
+        while (value >= 0 && value != '\n') {
+            if (length == line.length) {
+                line = Arrays.copyOf(line, length * 2);
+            }
+
+            line[length++] = (byte) value;
+            value = read();
+        }
+
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+
+        return new String(line, 0, length, charset);
+    }
+}
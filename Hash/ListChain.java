@@ -0,0 +1,101 @@
+/**
+ * Project Praca domowa 02 – hashing.
+ * Copyright Michał Szczygieł
+ * Created at Oct 24, 2013.
+ */
+
+import java.util.ArrayList;
+import java.util.Iterator;
+
+/**
+ * 
+ * ListChain class, bucket kept as unsorted list. Words are appended at the
+ * end, searching compares words one by one.
+ * 
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ * 
+ */
+public class ListChain implements Chain {
+
+    /**
+     * Words in chain.
+     */
+    private ArrayList<String> words = new ArrayList<String>(1);
+
+    /**
+     * Searching chain.
+     * 
+     * @param word
+     * 
+     * @return amount of comparisons, if chain contains word; otherwise,
+     *         (-(amount of comparisons) - 1)
+     */
+    @Override
+    public int find(String word) {
+        int index = words.indexOf(word);
+
+        if (index < 0) {
+            return -words.size() - 1;
+        }
+
+        return index + 1;
+    }
+
+    /**
+     * Inserting to chain, if chain does not contain word.
+     * 
+     * @param word
+     * 
+     * @return amount of comparisons
+     */
+    @Override
+    public int insert(String word) {
+        int comparisons = find(word);
+
+        if (comparisons < 0) {
+            words.add(word);
+            return -comparisons - 1;
+        }
+
+        return comparisons;
+    }
+
+    /**
+     * @see java.lang.Iterable#iterator()
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return words.iterator();
+    }
+
+    /**
+     * Removing word from chain. Last word takes place of removed one.
+     * 
+     * @param word
+     * 
+     * @return amount of comparisons, if chain contained word; otherwise,
+     *         (-(amount of comparisons) - 1)
+     */
+    @Override
+    public int remove(String word) {
+        int comparisons = find(word);
+
+        if (comparisons > 0) {
+            String last = words.remove(words.size() - 1);
+
+            if (comparisons <= words.size()) {
+                words.set(comparisons - 1, last);
+            }
+        }
+
+        return comparisons;
+    }
+
+    /**
+     * @return amount of words in chain
+     */
+    @Override
+    public int size() {
+        return words.size();
+    }
+}
@@ -0,0 +1,240 @@
+/**
+ * Project Praca domowa 02 – hashing.
+ * Copyright Michał Szczygieł
+ * Created at Oct 24, 2013.
+ */
+
+/**
+ *
+ * OpenHash class, hash table with open addressing, responsible for inserting,
+ * finding and deleting. Words are kept in parallel arrays of hashes and
+ * references, with linear probing ordered by Robin Hood rule: word which is
+ * further from its home slot takes the place of the word which is closer.
+ * Every occupied slot checked during insert is counted as collision.
+ *
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ *
+ */
+public class OpenHash implements Table {
+
+    /**
+     * Table is doubled, when it is filled above this factor.
+     */
+    private static final double LOAD_FACTOR = 0.9;
+
+    /**
+     * Count collision, updated when insert method is called.
+     */
+    private long collisionAmount = 0;
+
+    /**
+     * Hashes of words in slots.
+     */
+    private int[] hashes;
+
+    /**
+     * Words in slots, null for empty slot.
+     */
+    private String[] keys;
+
+    /**
+     * Mask of slot index, capacity of table minus one.
+     */
+    private int mask;
+
+    /**
+     * Amount of words in table.
+     */
+    private int size = 0;
+
+    /**
+     * Constructor. Create table for OpenHash class. Capacity is rounded up to
+     * power of two.
+     *
+     * @param hashSize
+     *            initial size of hash table
+     */
+    public OpenHash(int hashSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, hashSize - 1)) << 1;
+        hashes = new int[capacity];
+        keys = new String[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Gets distance of slot from home slot of the word kept in it.
+     *
+     * @param slot
+     *
+     * @return distance of probing
+     */
+    private int distance(int slot) {
+        return (slot - hashes[slot]) & mask;
+    }
+
+    /**
+     * Searching hash table.
+     *
+     * @param word
+     *
+     * @return true if hash contain word, false if not
+     */
+    @Override
+    public boolean find(String word) {
+        return indexOf(word) >= 0;
+    }
+
+    /**
+     * Gets collision amount.
+     *
+     * @return current collision count
+     */
+    @Override
+    public long getCollisionAmount() {
+        return this.collisionAmount;
+    }
+
+    /**
+     * Doubles capacity of table and places all words again.
+     */
+    private void grow() {
+        int[] oldHashes = hashes;
+        String[] oldKeys = keys;
+
+        hashes = new int[oldKeys.length * 2];
+        keys = new String[oldKeys.length * 2];
+        mask = keys.length - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                place(oldHashes[i], oldKeys[i], false);
+            }
+        }
+    }
+
+    /**
+     * Gets hash of word, with higher bits mixed into lower ones.
+     *
+     * @param word
+     *
+     * @return hash of word
+     */
+    private static int hash(String word) {
+        int hash = word.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Searching slot with word.
+     *
+     * @param word
+     *
+     * @return slot with word, or -1 if table does not contain word
+     */
+    private int indexOf(String word) {
+        int hash = hash(word);
+        int slot = hash & mask;
+
+        for (int distance = 0; keys[slot] != null
+                && distance(slot) >= distance; distance++) {
+            if (hashes[slot] == hash && keys[slot].equals(word)) {
+                return slot;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Inserting to table, if collision happened increments collision.
+     *
+     * @param word
+     *
+     */
+    @Override
+    public void insert(String word) {
+        if (size + 1 > keys.length * LOAD_FACTOR) {
+            grow();
+        }
+
+        place(hash(word), word, true);
+    }
+
+    /**
+     * Places word in table with Robin Hood rule.
+     *
+     * @param hash
+     *            hash of word
+     * @param word
+     * @param count
+     *            true if collisions should be counted
+     *
+     */
+    private void place(int hash, String word, boolean count) {
+        int slot = hash & mask;
+        int distance = 0;
+        boolean search = count;
+
+        while (keys[slot] != null) {
+            if (count) {
+                collisionAmount++;
+            }
+
+            if (search && hashes[slot] == hash && keys[slot].equals(word)) {
+                return;
+            }
+
+            int slotDistance = distance(slot);
+
+            if (slotDistance < distance) {
+                int swapHash = hashes[slot];
+                String swapWord = keys[slot];
+                hashes[slot] = hash;
+                keys[slot] = word;
+                hash = swapHash;
+                word = swapWord;
+                distance = slotDistance;
+                // Displaced words are unique, no need to compare them.
+                search = false;
+            }
+
+            slot = (slot + 1) & mask;
+            distance++;
+        }
+
+        hashes[slot] = hash;
+        keys[slot] = word;
+        size++;
+    }
+
+    /**
+     * Removing string from hash table. Following words are shifted back, so
+     * no tombstones are needed.
+     *
+     * @param word
+     *
+     */
+    @Override
+    public void remove(String word) {
+        int slot = indexOf(word);
+
+        if (slot < 0) {
+            return;
+        }
+
+        int next = (slot + 1) & mask;
+
+        while (keys[next] != null && distance(next) > 0) {
+            hashes[slot] = hashes[next];
+            keys[slot] = keys[next];
+            slot = next;
+            next = (next + 1) & mask;
+        }
+
+        hashes[slot] = 0;
+        keys[slot] = null;
+        size--;
+    }
+}
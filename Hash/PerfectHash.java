@@ -0,0 +1,356 @@
+/**
+ * Project Praca domowa 02 – hashing.
+ * Copyright Michał Szczygieł
+ * Created at Oct 24, 2013.
+ */
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 
+ * PerfectHash class, read only table with minimal perfect hash, built by
+ * hash and displace method (CHD). Words are divided into small buckets, and
+ * for every bucket, starting from the largest, displacement is searched, which
+ * places all its words into free slots. Every word has its own slot, so
+ * searching checks exactly one slot and there are no collisions. Besides
+ * words, table keeps one displacement for every bucket, packed with as many
+ * bits as the greatest displacement needs, and one byte of fingerprint for
+ * every word, so most of missing words are rejected without comparing
+ * strings.
+ * 
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ * 
+ */
+public class PerfectHash implements Table {
+
+    /**
+     * Average amount of words in bucket.
+     */
+    private static final int BUCKET_SIZE = 5;
+
+    /**
+     * Amount of displacements tried for every word, before building starts
+     * again with another seed. Last buckets have only few free slots, so the
+     * amount has to grow with size of table.
+     */
+    private static final int TRIES_PER_WORD = 16;
+
+    /**
+     * Amount of buckets.
+     */
+    private int bucketAmount;
+
+    /**
+     * Amount of bits of every displacement.
+     */
+    private int displacementBits;
+
+    /**
+     * Displacements of buckets, packed one after another with
+     * displacementBits bits each.
+     */
+    private long[] displacements;
+
+    /**
+     * Fingerprint of word in every slot.
+     */
+    private byte[] fingerprints;
+
+    /**
+     * Word in every slot.
+     */
+    private String[] keys;
+
+    /**
+     * Seed of hash function, changed when building fails.
+     */
+    private long seed = 0;
+
+    /**
+     * Constructor. Builds table for given words, repeated words are taken
+     * once.
+     * 
+     * @param words
+     */
+    public PerfectHash(Iterable<String> words) {
+        Set<String> unique = new LinkedHashSet<String>();
+
+        for (String word : words) {
+            unique.add(word);
+        }
+
+        String[] array = unique.toArray(new String[unique.size()]);
+
+        while (!build(array)) {
+            seed++;
+        }
+    }
+
+    /**
+     * Gets bucket of word.
+     * 
+     * @param hash
+     *            hash of word
+     * 
+     * @return bucket
+     */
+    private int bucket(long hash) {
+        return (int) (((hash >>> 32) * bucketAmount) >>> 32);
+    }
+
+    /**
+     * Building table with current seed.
+     * 
+     * @param words
+     *            unique words
+     * 
+     * @return true if table was built, false if some bucket could not be
+     *         placed
+     */
+    private boolean build(String[] words) {
+        int size = words.length;
+        long[] hashes = new long[size];
+        bucketAmount = Math.max(1, (size + BUCKET_SIZE - 1) / BUCKET_SIZE);
+        fingerprints = new byte[size];
+        keys = new String[size];
+
+        // Words are grouped by buckets with counting sort.
+        int[] starts = new int[bucketAmount + 1];
+
+        for (int i = 0; i < size; i++) {
+            hashes[i] = HashFunctions.hash64(words[i], seed);
+            starts[bucket(hashes[i]) + 1]++;
+        }
+
+        int maxBucket = 0;
+
+        for (int i = 0; i < bucketAmount; i++) {
+            maxBucket = Math.max(maxBucket, starts[i + 1]);
+            starts[i + 1] += starts[i];
+        }
+
+        int[] next = Arrays.copyOf(starts, bucketAmount);
+        int[] order = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            order[next[bucket(hashes[i])]++] = i;
+        }
+
+        // Buckets are sorted from the largest, also with counting sort.
+        int[] sizeStarts = new int[maxBucket + 2];
+
+        for (int i = 0; i < bucketAmount; i++) {
+            sizeStarts[maxBucket - (starts[i + 1] - starts[i]) + 1]++;
+        }
+
+        for (int i = 0; i <= maxBucket; i++) {
+            sizeStarts[i + 1] += sizeStarts[i];
+        }
+
+        int[] buckets = new int[bucketAmount];
+
+        for (int i = 0; i < bucketAmount; i++) {
+            buckets[sizeStarts[maxBucket - (starts[i + 1] - starts[i])]++] = i;
+        }
+
+        int maxDisplacement = (int) Math.min(Integer.MAX_VALUE, 1024L
+                + (long) TRIES_PER_WORD * size);
+        boolean[] taken = new boolean[size];
+        int[] slots = new int[maxBucket];
+        int[] bucketDisplacements = new int[bucketAmount];
+        int maxUsed = 0;
+
+        for (int bucket : buckets) {
+            int count = starts[bucket + 1] - starts[bucket];
+            int displacement = 0;
+
+            if (count == 0) {
+                continue;
+            }
+
+            while (!place(hashes, order, starts[bucket], count, displacement,
+                    taken, slots)) {
+                if (++displacement == maxDisplacement) {
+                    return false;
+                }
+            }
+
+            bucketDisplacements[bucket] = displacement;
+            maxUsed = Math.max(maxUsed, displacement);
+
+            for (int i = 0; i < count; i++) {
+                int word = order[starts[bucket] + i];
+                taken[slots[i]] = true;
+                keys[slots[i]] = words[word];
+                fingerprints[slots[i]] = (byte) hashes[word];
+            }
+        }
+
+        // Most displacements are small, so every one gets only as many bits
+        // as the greatest one, instead of full int.
+        displacementBits = Math.max(1, Integer.SIZE
+                - Integer.numberOfLeadingZeros(maxUsed));
+        displacements = new long[(int) (((long) bucketAmount
+                * displacementBits + Long.SIZE - 1) / Long.SIZE)];
+
+        for (int i = 0; i < bucketAmount; i++) {
+            long position = (long) i * displacementBits;
+            int index = (int) (position >>> 6);
+            int shift = (int) (position & 63);
+            displacements[index] |= (long) bucketDisplacements[i] << shift;
+
+            if (shift + displacementBits > Long.SIZE) {
+                displacements[index + 1] |= (long) bucketDisplacements[i]
+                        >>> (Long.SIZE - shift);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets displacement of bucket from packed displacements.
+     * 
+     * @param bucket
+     * 
+     * @return displacement
+     */
+    private int displacement(int bucket) {
+        long position = (long) bucket * displacementBits;
+        int index = (int) (position >>> 6);
+        int shift = (int) (position & 63);
+        long value = displacements[index] >>> shift;
+
+        if (shift + displacementBits > Long.SIZE) {
+            value |= displacements[index + 1] << (Long.SIZE - shift);
+        }
+
+        return (int) (value & ((1L << displacementBits) - 1));
+    }
+
+    /**
+     * Searching hash table.
+     * 
+     * @param word
+     * 
+     * @return true if hash contain word, false if not
+     */
+    @Override
+    public boolean find(String word) {
+        if (keys.length == 0) {
+            return false;
+        }
+
+        long hash = HashFunctions.hash64(word, seed);
+        int slot = slot(hash, displacement(bucket(hash)));
+
+        return fingerprints[slot] == (byte) hash && keys[slot].equals(word);
+    }
+
+    /**
+     * Gets amount of bits for every word, used by displacements and
+     * fingerprints, without words.
+     * 
+     * @return bits per word
+     */
+    public double getBitsPerKey() {
+        if (keys.length == 0) {
+            return 0;
+        }
+
+        return (displacements.length * (double) Long.SIZE
+                + fingerprints.length * (double) Byte.SIZE) / keys.length;
+    }
+
+    /**
+     * Gets collision amount. Every word has its own slot.
+     * 
+     * @return 0
+     */
+    @Override
+    public long getCollisionAmount() {
+        return 0;
+    }
+
+    /**
+     * Table is built once.
+     * 
+     * @param word
+     * 
+     * @throws UnsupportedOperationException
+     *             always
+     */
+    @Override
+    public void insert(String word) {
+        throw new UnsupportedOperationException("Perfect hash is read only");
+    }
+
+    /**
+     * Trying to place words of bucket with displacement.
+     * 
+     * @param hashes
+     *            hashes of words
+     * @param order
+     *            words grouped by buckets
+     * @param start
+     *            index of first word of bucket in order
+     * @param count
+     *            amount of words in bucket
+     * @param displacement
+     * @param taken
+     *            true for slots taken by placed buckets
+     * @param slots
+     *            slots of words of bucket, filled by this method
+     * 
+     * @return true if all words got free and different slots
+     */
+    private boolean place(long[] hashes, int[] order, int start, int count,
+            int displacement, boolean[] taken, int[] slots) {
+        for (int i = 0; i < count; i++) {
+            slots[i] = slot(hashes[order[start + i]], displacement);
+
+            if (taken[slots[i]]) {
+                return false;
+            }
+
+            for (int j = 0; j < i; j++) {
+                if (slots[j] == slots[i]) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Table is built once.
+     * 
+     * @param word
+     * 
+     * @throws UnsupportedOperationException
+     *             always
+     */
+    @Override
+    public void remove(String word) {
+        throw new UnsupportedOperationException("Perfect hash is read only");
+    }
+
+    /**
+     * Gets slot of word.
+     * 
+     * @param hash
+     *            hash of word
+     * @param displacement
+     *            displacement of bucket of word
+     * 
+     * @return slot
+     */
+    private int slot(long hash, int displacement) {
+        long mixed = HashFunctions.mix64(hash + displacement
+                * 0x9e3779b97f4a7c15L);
+        return (int) (((mixed >>> 32) * keys.length) >>> 32);
+    }
+}
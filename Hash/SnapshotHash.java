@@ -0,0 +1,314 @@
+/**
+ * Project Praca domowa 02 – hashing.
+ * Copyright Michał Szczygieł
+ * Created at Oct 24, 2013.
+ */
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * 
+ * SnapshotHash class, read only hash table mapped from snapshot written by
+ * {@link Hash#save(File)}. Table is ready for searching at once, nothing is
+ * rebuilt. Snapshot contains header, directory of chains, offsets of words
+ * and words encoded in UTF-8. Words in every chain are sorted as unsigned
+ * bytes, so searching uses binary search on raw bytes.
+ * 
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ * 
+ */
+public class SnapshotHash implements Table {
+
+    /**
+     * First bytes of snapshot file.
+     */
+    public static final int MAGIC = 0x48415348;
+
+    /**
+     * Version of snapshot format.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * Amount of bits for offset in mapped region.
+     */
+    private static final int REGION_BITS = 30;
+
+    /**
+     * Size of mapped region of the file.
+     */
+    private static final long REGION_SIZE = 1L << REGION_BITS;
+
+    /**
+     * Position of directory of chains in file. For every chain, index of its
+     * first word, and index of end of last chain.
+     */
+    private long chainsPosition;
+
+    /**
+     * Collision amount of table, which was saved.
+     */
+    private long collisionAmount;
+
+    /**
+     * Function counting hashes of words.
+     */
+    private HashFunction function;
+
+    /**
+     * Position of offsets of words in file. For every word, its position in
+     * file, and position of end of last word.
+     */
+    private long offsetsPosition;
+
+    /**
+     * True if index of chain is taken from lower bits of hash.
+     */
+    private boolean powerOfTwo;
+
+    /**
+     * Mapped regions of the file.
+     */
+    private MappedByteBuffer[] regions;
+
+    /**
+     * Size of hash table.
+     */
+    private int tableSize;
+
+    /**
+     * Amount of words in table.
+     */
+    private long wordAmount;
+
+    /**
+     * Constructor. Maps snapshot read only.
+     * 
+     * @param file
+     *            snapshot file
+     * 
+     * @throws IOException
+     *             if file can not be read or is not a snapshot
+     */
+    public SnapshotHash(File file) throws IOException {
+        DataInputStream input = new DataInputStream(new FileInputStream(file));
+
+        try {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                throw new IOException("Not a snapshot : " + file);
+            }
+
+            String name = input.readUTF();
+            function = HashFunctions.forName(name);
+
+            if (function == null) {
+                throw new IOException("Unknown function : " + name);
+            }
+
+            powerOfTwo = input.readBoolean();
+            tableSize = input.readInt();
+            wordAmount = input.readLong();
+            collisionAmount = input.readLong();
+            chainsPosition = headerSize(name);
+            offsetsPosition = chainsPosition + 8L * (tableSize + 1);
+        } finally {
+            input.close();
+        }
+
+        FileChannel channel = new FileInputStream(file).getChannel();
+
+        try {
+            long size = channel.size();
+            regions = new MappedByteBuffer[(int) ((size + REGION_SIZE - 1) / REGION_SIZE)];
+
+            for (int i = 0; i < regions.length; i++) {
+                long position = i * REGION_SIZE;
+                regions[i] = channel.map(MapMode.READ_ONLY, position,
+                        Math.min(REGION_SIZE, size - position));
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Comparing byte arrays as unsigned values.
+     * 
+     * @param word1
+     * @param word2
+     * 
+     * @return negative value, zero, or positive value, if first word is less
+     *         than, equal to, or greater than second
+     */
+    public static int compare(byte[] word1, byte[] word2) {
+        int common = Math.min(word1.length, word2.length);
+
+        for (int i = 0; i < common; i++) {
+            int difference = (word1[i] & 0xff) - (word2[i] & 0xff);
+
+            if (difference != 0) {
+                return difference;
+            }
+        }
+
+        return word1.length - word2.length;
+    }
+
+    /**
+     * Comparing word from file with given word.
+     * 
+     * @param index
+     *            index of word in file
+     * @param word
+     *            word encoded in UTF-8
+     * 
+     * @return negative value, zero, or positive value, if word in file is
+     *         less than, equal to, or greater than given word
+     */
+    private int compare(long index, byte[] word) {
+        long start = getLong(offsetsPosition + 8 * index);
+        long length = getLong(offsetsPosition + 8 * (index + 1)) - start;
+        long common = Math.min(length, word.length);
+
+        for (int i = 0; i < common; i++) {
+            int difference = (getByte(start + i) & 0xff) - (word[i] & 0xff);
+
+            if (difference != 0) {
+                return difference;
+            }
+        }
+
+        return Long.signum(length - word.length);
+    }
+
+    /**
+     * Searching hash table.
+     * 
+     * @param word
+     * 
+     * @return true if hash contain word, false if not
+     */
+    @Override
+    public boolean find(String word) {
+        int chain = Hash.index(function.hash(word), tableSize, powerOfTwo);
+        long lower = getLong(chainsPosition + 8L * chain);
+        long upper = getLong(chainsPosition + 8L * (chain + 1)) - 1;
+        byte[] bytes = Arena.encode(word);
+
+        while (lower <= upper) {
+            long mid = (lower + upper) >>> 1;
+            int comparison = compare(mid, bytes);
+
+            if (comparison < 0) {
+                lower = mid + 1;
+            } else if (comparison > 0) {
+                upper = mid - 1;
+            } else {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Gets size of header of snapshot.
+     * 
+     * @param name
+     *            name of hash function, one of {@link HashFunctions#NAMES}
+     * 
+     * @return size of header in bytes
+     */
+    static long headerSize(String name) {
+        // Magic, version, name with its length, flag, size, words, collisions.
+        return 4 + 4 + 2 + name.length() + 1 + 4 + 8 + 8;
+    }
+
+    /**
+     * Gets byte from file.
+     * 
+     * @param position
+     *            position in file
+     * 
+     * @return byte
+     */
+    private byte getByte(long position) {
+        return regions[(int) (position >>> REGION_BITS)]
+                .get((int) (position & (REGION_SIZE - 1)));
+    }
+
+    /**
+     * Gets collision amount of table, which was saved.
+     * 
+     * @return collision count
+     */
+    @Override
+    public long getCollisionAmount() {
+        return collisionAmount;
+    }
+
+    /**
+     * Gets long from file.
+     * 
+     * @param position
+     *            position in file
+     * 
+     * @return long value
+     */
+    private long getLong(long position) {
+        int offset = (int) (position & (REGION_SIZE - 1));
+
+        if (offset <= REGION_SIZE - 8) {
+            return regions[(int) (position >>> REGION_BITS)].getLong(offset);
+        }
+
+        long value = 0;
+
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (getByte(position + i) & 0xff);
+        }
+
+        return value;
+    }
+
+    /**
+     * Gets amount of words in table.
+     * 
+     * @return amount of words
+     */
+    public long getWordAmount() {
+        return wordAmount;
+    }
+
+    /**
+     * Snapshot is read only.
+     * 
+     * @param word
+     * 
+     * @throws UnsupportedOperationException
+     *             always
+     */
+    @Override
+    public void insert(String word) {
+        throw new UnsupportedOperationException("Snapshot is read only");
+    }
+
+    /**
+     * Snapshot is read only.
+     * 
+     * @param word
+     * 
+     * @throws UnsupportedOperationException
+     *             always
+     */
+    @Override
+    public void remove(String word) {
+        throw new UnsupportedOperationException("Snapshot is read only");
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * Project Praca domowa 02 – hashing.
+ * Copyright Michał Szczygieł
+ * Created at Oct 24, 2013.
+ */
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * 
+ * SortedChain class, bucket kept as growable array sorted in ascending order.
+ * Searching uses binary search.
+ * 
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ * 
+ */
+public class SortedChain implements Chain {
+
+    /**
+     * Empty array shared by all empty chains.
+     */
+    private static final String[] EMPTY = new String[0];
+
+    /**
+     * Amount of comparisons made by last search.
+     */
+    private int comparisons = 0;
+
+    /**
+     * Amount of words in chain.
+     */
+    private int size = 0;
+
+    /**
+     * Words in chain, sorted in ascending order.
+     */
+    private String[] words = EMPTY;
+
+    /**
+     * Binary Search for Hash table with few modifications for hash tables.
+     * Searches the array for the specified word using the binary search
+     * algorithm. The array must be sorted into ascending order. Every
+     * comparison is counted.
+     * 
+     * @param word
+     * 
+     * @return the index of the search key, if it is contained in the chain;
+     *         otherwise, (-(insertion point) - 1). The insertion point is
+     *         defined as the point at which the key would be inserted into
+     *         the chain.
+     */
+    private int binarySearch(String word) {
+        comparisons = 0;
+        int lower = 0;
+        int upper = size - 1;
+
+        while (lower <= upper) {
+            int mid = (lower + upper) >>> 1;
+            int comparison = words[mid].compareTo(word);
+            comparisons++;
+
+            if (comparison < 0) {
+                lower = mid + 1;
+            } else if (comparison > 0) {
+                upper = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+
+        return -(lower + 1);
+    }
+
+    /**
+     * Searching chain.
+     * 
+     * @param word
+     * 
+     * @return amount of comparisons, if chain contains word; otherwise,
+     *         (-(amount of comparisons) - 1)
+     */
+    @Override
+    public int find(String word) {
+        int index = binarySearch(word);
+        return index >= 0 ? comparisons : -comparisons - 1;
+    }
+
+    /**
+     * Inserting to chain, if chain does not contain word.
+     * 
+     * @param word
+     * 
+     * @return amount of comparisons
+     */
+    @Override
+    public int insert(String word) {
+        int index = binarySearch(word);
+
+        if (index < 0) {
+            index = -index - 1;
+
+            if (size == words.length) {
+                words = Arrays.copyOf(words, Math.max(2, size * 2));
+            }
+
+            System.arraycopy(words, index, words, index + 1, size - index);
+            words[index] = word;
+            size++;
+        }
+
+        return comparisons;
+    }
+
+    /**
+     * @see java.lang.Iterable#iterator()
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return Arrays.asList(words).subList(0, size).iterator();
+    }
+
+    /**
+     * Removing word from chain.
+     * 
+     * @param word
+     * 
+     * @return amount of comparisons, if chain contained word; otherwise,
+     *         (-(amount of comparisons) - 1)
+     */
+    @Override
+    public int remove(String word) {
+        int index = binarySearch(word);
+
+        if (index < 0) {
+            return -comparisons - 1;
+        }
+
+        System.arraycopy(words, index + 1, words, index, size - index - 1);
+        words[--size] = null;
+
+        return comparisons;
+    }
+
+    /**
+     * @return amount of words in chain
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+}
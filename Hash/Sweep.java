@@ -0,0 +1,183 @@
+/**
+ * Project Praca domowa 02 – hashing.
+ * Copyright Michał Szczygieł
+ * Created at Oct 24, 2013.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 
+ * Sweep class, counting collisions of {@link Hash} with sorted chains for
+ * many sizes of table, without building tables. Words are read once, and for
+ * every word its hash and rank in ascending order of all words are kept.
+ * Comparing ranks gives the same result as comparing words, so binary search
+ * on ranks counts the same collisions as {@link SortedChain}. Sizes are
+ * counted in parallel, one task for every size.
+ * 
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ * 
+ */
+public class Sweep {
+
+    /**
+     * Hash of every inserted word, in order of inserting.
+     */
+    private int[] hashes;
+
+    /**
+     * Rank of every inserted word, in order of inserting. Equal words have
+     * equal ranks.
+     */
+    private int[] ranks;
+
+    /**
+     * Constructor. Counts hashes and ranks of words.
+     * 
+     * @param words
+     *            words in order of inserting, may repeat
+     * @param function
+     *            function counting hashes of words
+     */
+    public Sweep(List<String> words, HashFunction function) {
+        String[] sorted = words.toArray(new String[words.size()]);
+        Arrays.sort(sorted);
+        Map<String, Integer> rankOf = new HashMap<String, Integer>();
+
+        for (String word : sorted) {
+            if (!rankOf.containsKey(word)) {
+                rankOf.put(word, rankOf.size());
+            }
+        }
+
+        hashes = new int[words.size()];
+        ranks = new int[words.size()];
+
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = function.hash(words.get(i));
+            ranks[i] = rankOf.get(words.get(i));
+        }
+    }
+
+    /**
+     * Counting collisions for one size of table.
+     * 
+     * @param hashSize
+     *            size of hash table
+     * 
+     * @return collision count, as {@link Hash#getCollisionAmount()} after
+     *         inserting all words
+     */
+    public long collisions(int hashSize) {
+        // Words are grouped by chains with stable counting sort, so order of
+        // inserting into every chain is kept.
+        int[] starts = new int[hashSize + 1];
+        int[] chains = new int[hashes.length];
+
+        for (int i = 0; i < hashes.length; i++) {
+            chains[i] = Hash.index(hashes[i], hashSize, false);
+            starts[chains[i] + 1]++;
+        }
+
+        int longest = 0;
+
+        for (int i = 0; i < hashSize; i++) {
+            longest = Math.max(longest, starts[i + 1]);
+            starts[i + 1] += starts[i];
+        }
+
+        int[] order = new int[hashes.length];
+
+        for (int i = 0; i < hashes.length; i++) {
+            order[starts[chains[i]]++] = ranks[i];
+        }
+
+        long collisionAmount = 0;
+        int[] chain = new int[longest];
+
+        for (int start = 0, i = 0; i < hashSize; i++) {
+            int end = starts[i];
+            int size = 0;
+
+            for (int j = start; j < end; j++) {
+                int rank = order[j];
+                int lower = 0;
+                int upper = size - 1;
+
+                while (lower <= upper) {
+                    int mid = (lower + upper) >>> 1;
+                    collisionAmount++;
+
+                    if (chain[mid] < rank) {
+                        lower = mid + 1;
+                    } else if (chain[mid] > rank) {
+                        upper = mid - 1;
+                    } else {
+                        break;
+                    }
+                }
+
+                if (lower > upper) {
+                    System.arraycopy(chain, lower, chain, lower + 1, size
+                            - lower);
+                    chain[lower] = rank;
+                    size++;
+                }
+            }
+
+            start = end;
+        }
+
+        return collisionAmount;
+    }
+
+    /**
+     * Counting collisions for many sizes of table, by all available
+     * processors.
+     * 
+     * @param hashSizes
+     *            sizes of hash table
+     * 
+     * @return collision count for every size
+     * 
+     * @throws InterruptedException
+     * @throws ExecutionException
+     */
+    public long[] collisions(int... hashSizes) throws InterruptedException,
+            ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime
+                .getRuntime().availableProcessors());
+        List<Future<Long>> results = new ArrayList<Future<Long>>(
+                hashSizes.length);
+
+        try {
+            for (final int hashSize : hashSizes) {
+                results.add(executor.submit(new Callable<Long>() {
+                    @Override
+                    public Long call() {
+                        return collisions(hashSize);
+                    }
+                }));
+            }
+
+            long[] collisionAmounts = new long[hashSizes.length];
+
+            for (int i = 0; i < hashSizes.length; i++) {
+                collisionAmounts[i] = results.get(i).get();
+            }
+
+            return collisionAmounts;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
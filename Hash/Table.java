@@ -0,0 +1,48 @@
+/**
+ * Project Praca domowa 02 – hashing.
+ * Copyright Michał Szczygieł
+ * Created at Oct 24, 2013.
+ */
+
+/**
+ * 
+ * Table interface, common for hash tables responsible for inserting, finding
+ * and deleting.
+ * 
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ * 
+ */
+public interface Table {
+
+    /**
+     * Searching hash table.
+     * 
+     * @param word
+     * 
+     * @return true if hash contain word, false if not
+     */
+    boolean find(String word);
+
+    /**
+     * Gets collision amount.
+     * 
+     * @return current collision count
+     */
+    long getCollisionAmount();
+
+    /**
+     * Inserting to table, if collision happened increments collision.
+     * 
+     * @param word
+     * 
+     */
+    void insert(String word);
+
+    /**
+     * Removing string from hash table.
+     * 
+     * @param word
+     * 
+     */
+    void remove(String word);
+}
@@ -0,0 +1,106 @@
+/**
+ * Project Praca domowa 02 – hashing.
+ * Copyright Michał Szczygieł
+ * Created at Oct 24, 2013.
+ */
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.TreeSet;
+
+/**
+ * 
+ * TreeChain class, bucket kept as balanced tree (red-black tree from
+ * {@link TreeSet}). Comparisons are counted by comparator of the tree.
+ * 
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ * 
+ */
+public class TreeChain implements Chain, Comparator<String> {
+
+    /**
+     * Amount of comparisons made by tree.
+     */
+    private int comparisons = 0;
+
+    /**
+     * Words in chain.
+     */
+    private TreeSet<String> words = new TreeSet<String>(this);
+
+    /**
+     * Comparing words and counting comparisons.
+     * 
+     * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
+     */
+    @Override
+    public int compare(String word1, String word2) {
+        comparisons++;
+        return word1.compareTo(word2);
+    }
+
+    /**
+     * Searching chain.
+     * 
+     * @param word
+     * 
+     * @return amount of comparisons, if chain contains word; otherwise,
+     *         (-(amount of comparisons) - 1)
+     */
+    @Override
+    public int find(String word) {
+        comparisons = 0;
+        return words.contains(word) ? comparisons : -comparisons - 1;
+    }
+
+    /**
+     * Inserting to chain, if chain does not contain word.
+     * 
+     * @param word
+     * 
+     * @return amount of comparisons
+     */
+    @Override
+    public int insert(String word) {
+        comparisons = 0;
+
+        // Tree compares first word with itself, it is not a collision.
+        if (words.isEmpty()) {
+            words.add(word);
+            return 0;
+        }
+
+        words.add(word);
+        return comparisons;
+    }
+
+    /**
+     * @see java.lang.Iterable#iterator()
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return words.iterator();
+    }
+
+    /**
+     * Removing word from chain.
+     * 
+     * @param word
+     * 
+     * @return amount of comparisons, if chain contained word; otherwise,
+     *         (-(amount of comparisons) - 1)
+     */
+    @Override
+    public int remove(String word) {
+        comparisons = 0;
+        return words.remove(word) ? comparisons : -comparisons - 1;
+    }
+
+    /**
+     * @return amount of words in chain
+     */
+    @Override
+    public int size() {
+        return words.size();
+    }
+}
@@ -0,0 +1,144 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Project Praca domowa 03 – highway.
+ * Copyright Michał Szczygieł
+ * Created at Oct 30, 2013.
+ */
+
+/**
+ * 
+ * BiconnectedComponents class, splits graph into biconnected blocks with
+ * Hopcroft-Tarjan algorithm. Graph is planar if and only if all its blocks
+ * are planar, so blocks can be checked separately. Depth first search keeps
+ * its own stack, and visited edges are kept on second stack, until their
+ * block is closed. Loops are skipped.
+ * 
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ * 
+ */
+public class BiconnectedComponents {
+
+    /**
+     * Blocks of graph, with nodes identified by locations.
+     */
+    private List<CompactGraph> blocks = new ArrayList<CompactGraph>();
+
+    /**
+     * Constructor. Splits graph into blocks.
+     * 
+     * @param graph
+     */
+    public BiconnectedComponents(CompactGraph graph) {
+        int quantity = graph.quantityNode();
+        int[] discovery = new int[quantity];
+        int[] low = new int[quantity];
+        int[] parent = new int[quantity];
+        int[] stack = new int[quantity];
+        int[] positions = new int[quantity];
+        int[] edgeSources = new int[graph.quantityEdges() + 1];
+        int[] edgeTargets = new int[graph.quantityEdges() + 1];
+        int edges = 0;
+        int time = 0;
+
+        Arrays.fill(discovery, -1);
+
+        for (int root = 0; root < quantity; root++) {
+            if (discovery[root] >= 0) {
+                continue;
+            }
+
+            int top = 0;
+            discovery[root] = time;
+            low[root] = time++;
+            parent[root] = -1;
+            stack[top] = root;
+            positions[top++] = graph.getFirstNeighbor(root);
+
+            while (top > 0) {
+                int node = stack[top - 1];
+
+                if (positions[top - 1] < graph.getLastNeighbor(node)) {
+                    int neighbor = graph.getNeighbor(positions[top - 1]++);
+
+                    if (discovery[neighbor] < 0) {
+                        edgeSources[edges] = node;
+                        edgeTargets[edges++] = neighbor;
+                        discovery[neighbor] = time;
+                        low[neighbor] = time++;
+                        parent[neighbor] = node;
+                        stack[top] = neighbor;
+                        positions[top++] = graph.getFirstNeighbor(neighbor);
+                    } else if (neighbor != parent[node]
+                            && discovery[neighbor] < discovery[node]) {
+                        // Back edge, loops are skipped here too.
+                        edgeSources[edges] = node;
+                        edgeTargets[edges++] = neighbor;
+                        low[node] = Math.min(low[node], discovery[neighbor]);
+                    }
+
+                    continue;
+                }
+
+                top--;
+
+                if (top == 0) {
+                    continue;
+                }
+
+                int previous = stack[top - 1];
+                low[previous] = Math.min(low[previous], low[node]);
+
+                if (low[node] >= discovery[previous]) {
+                    // Previous node separates block with tree edge to node.
+                    int start = edges;
+
+                    do {
+                        start--;
+                    } while (edgeSources[start] != previous
+                            || edgeTargets[start] != node);
+
+                    blocks.add(createBlock(graph, edgeSources, edgeTargets,
+                            start, edges));
+                    edges = start;
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates block from edges on stack.
+     * 
+     * @param graph
+     * @param edgeSources
+     *            First node of every edge on stack.
+     * @param edgeTargets
+     *            Second node of every edge on stack.
+     * @param start
+     *            Index of first edge of block.
+     * @param end
+     *            Index after last edge of block.
+     * @return Block with nodes identified by locations.
+     */
+    private static CompactGraph createBlock(CompactGraph graph,
+            int[] edgeSources, int[] edgeTargets, int start, int end) {
+        int[] sources = new int[end - start];
+        int[] targets = new int[end - start];
+
+        for (int i = start; i < end; i++) {
+            sources[i - start] = graph.getLocation(edgeSources[i]);
+            targets[i - start] = graph.getLocation(edgeTargets[i]);
+        }
+
+        return new CompactGraph(sources, targets);
+    }
+
+    /**
+     * @return Blocks of graph, with nodes identified by locations.
+     */
+    public List<CompactGraph> getBlocks() {
+        return blocks;
+    }
+}
@@ -0,0 +1,217 @@
+import java.util.Arrays;
+
+/**
+ * Project Praca domowa 03 – highway.
+ * Copyright Michał Szczygieł
+ * Created at Oct 30, 2013.
+ */
+
+/**
+ * 
+ * CompactGraph class, immutable graph kept in compressed sparse row format.
+ * Nodes are identified by locations in the island structure, and inside the
+ * graph by indexes from 0, in ascending order of locations. Neighbors of node
+ * with index i are indexes in neighbors array from offsets[i] to
+ * offsets[i + 1], also in ascending order. Every edge takes two ints.
+ * 
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ * 
+ */
+public class CompactGraph {
+
+    /**
+     * Locations of nodes, in ascending order.
+     */
+    private int[] locations;
+
+    /**
+     * Indexes of neighbors of all nodes, grouped by nodes.
+     */
+    private int[] neighbors;
+
+    /**
+     * Index of first neighbor of every node, and size of neighbors array at
+     * the end.
+     */
+    private int[] offsets;
+
+    /**
+     * Amount of edges, counted when graph is built.
+     */
+    private int quantityEdges;
+
+    /**
+     * Constructor. Builds graph from list of edges. Repeated edges are taken
+     * once. Edge from node to itself makes node its own neighbor, and is
+     * counted as half of edge, as in {@link Highway.Graph}.
+     * 
+     * @param sources
+     *            Location of first node of every edge.
+     * @param targets
+     *            Location of second node of every edge.
+     */
+    public CompactGraph(int[] sources, int[] targets) {
+        long[] pairs = new long[2 * sources.length];
+
+        for (int i = 0; i < sources.length; i++) {
+            pairs[2 * i] = pair(sources[i], targets[i]);
+            pairs[2 * i + 1] = pair(targets[i], sources[i]);
+        }
+
+        Arrays.sort(pairs);
+        int size = 0;
+        int quantity = 0;
+
+        for (int i = 0; i < pairs.length; i++) {
+            if (i == 0 || pairs[i] != pairs[i - 1]) {
+                pairs[size++] = pairs[i];
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            if (i == 0 || pairs[i] >>> 32 != pairs[i - 1] >>> 32) {
+                quantity++;
+            }
+        }
+
+        locations = new int[quantity];
+        offsets = new int[quantity + 1];
+        neighbors = new int[size];
+        quantityEdges = size / 2;
+
+        for (int i = 0, node = -1; i < size; i++) {
+            if (node < 0 || locations[node] != (int) (pairs[i] >>> 32)) {
+                locations[++node] = (int) (pairs[i] >>> 32);
+                offsets[node] = i;
+            }
+        }
+
+        offsets[quantity] = size;
+
+        for (int i = 0; i < size; i++) {
+            neighbors[i] = index((int) pairs[i]);
+        }
+    }
+
+    /**
+     * Constructor. Builds graph of nodes with locations from 0 to quantity - 1
+     * from distinct edges, given in ascending order, with first node less
+     * than second one. Neighbors are placed by counting, in order of edges,
+     * so they are already ascending and no sorting is needed.
+     * 
+     * @param quantity
+     *            Amount of nodes.
+     * @param sources
+     *            First node of every edge.
+     * @param targets
+     *            Second node of every edge.
+     * @param quantityEdges
+     *            Amount of edges, taken from the beginning of arrays.
+     */
+    public CompactGraph(int quantity, int[] sources, int[] targets,
+            int quantityEdges) {
+        locations = new int[quantity];
+        offsets = new int[quantity + 1];
+        neighbors = new int[2 * quantityEdges];
+        this.quantityEdges = quantityEdges;
+
+        for (int i = 0; i < quantityEdges; i++) {
+            offsets[sources[i] + 1]++;
+            offsets[targets[i] + 1]++;
+        }
+
+        for (int node = 0; node < quantity; node++) {
+            locations[node] = node;
+            offsets[node + 1] += offsets[node];
+        }
+
+        int[] positions = Arrays.copyOf(offsets, quantity);
+
+        for (int i = 0; i < quantityEdges; i++) {
+            neighbors[positions[sources[i]]++] = targets[i];
+            neighbors[positions[targets[i]]++] = sources[i];
+        }
+    }
+
+    /**
+     * Gets index of first neighbor of node.
+     * 
+     * @param node
+     *            Index of node.
+     * @return Position of first neighbor, for {@link #getNeighbor(int)}.
+     */
+    public int getFirstNeighbor(int node) {
+        return offsets[node];
+    }
+
+    /**
+     * Gets location of node.
+     * 
+     * @param node
+     *            Index of node.
+     * @return Location of node in the island structure.
+     */
+    public int getLocation(int node) {
+        return locations[node];
+    }
+
+    /**
+     * Gets neighbor.
+     * 
+     * @param position
+     *            Position of neighbor, between {@link #getFirstNeighbor(int)}
+     *            and {@link #getLastNeighbor(int)} of node.
+     * @return Index of neighbor.
+     */
+    public int getNeighbor(int position) {
+        return neighbors[position];
+    }
+
+    /**
+     * Gets end of neighbors of node.
+     * 
+     * @param node
+     *            Index of node.
+     * @return Position after last neighbor, for {@link #getNeighbor(int)}.
+     */
+    public int getLastNeighbor(int node) {
+        return offsets[node + 1];
+    }
+
+    /**
+     * Gets index of node.
+     * 
+     * @param location
+     *            Location of node in the island structure.
+     * @return Index of node, or -1 if graph does not contain it.
+     */
+    public int index(int location) {
+        int index = Arrays.binarySearch(locations, location);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * Packs edge into long, sorted by first and then by second node.
+     * 
+     * @param node1
+     * @param node2
+     * @return Packed edge.
+     */
+    private static long pair(int node1, int node2) {
+        return (long) node1 << 32 | (node2 & 0xffffffffL);
+    }
+
+    /**
+     * @return Amount of edges in the graph.
+     */
+    public int quantityEdges() {
+        return quantityEdges;
+    }
+
+    /**
+     * @return Amount of nodes in the graph.
+     */
+    public int quantityNode() {
+        return locations.length;
+    }
+}
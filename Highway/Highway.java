@@ -1,9 +1,16 @@
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Project Praca domowa 03 – highway.
@@ -22,6 +29,72 @@ import java.util.Set;
  */
 public class Highway {
 
+    /**
+     * BlockCheck class checks planarity of range of blocks. Range is split in
+     * halves, which are checked in parallel, until single block is left.
+     * Blocks are not checked, when other block is not planar.
+     */
+    private class BlockCheck extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Blocks of graph.
+         */
+        private final List<CompactGraph> blocks;
+
+        /**
+         * Index after last block to check.
+         */
+        private final int end;
+
+        /**
+         * Engine checking planarity.
+         */
+        private final String engine;
+
+        /**
+         * Index of first block to check.
+         */
+        private final int start;
+
+        /**
+         * Constructor for BlockCheck class.
+         * 
+         * @param blocks
+         *            Blocks of graph.
+         * @param start
+         *            Index of first block to check.
+         * @param end
+         *            Index after last block to check.
+         * @param engine
+         *            Engine checking planarity.
+         */
+        public BlockCheck(List<CompactGraph> blocks, int start, int end,
+                String engine) {
+            this.blocks = blocks;
+            this.start = start;
+            this.end = end;
+            this.engine = engine;
+        }
+
+        /**
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        @Override
+        protected void compute() {
+            if (nonPlanar.get()) {
+                return;
+            } else if (end - start > 1) {
+                int middle = (start + end) >>> 1;
+                invokeAll(new BlockCheck(blocks, start, middle, engine),
+                        new BlockCheck(blocks, middle, end, engine));
+            } else if (!checkBlock(blocks.get(start), engine)) {
+                nonPlanar.set(true);
+            }
+        }
+    }
+
     /**
      * Graph class contain implementation for nodes in the island structure.
      * Every node contain information about localization node in the island
@@ -211,6 +284,33 @@ public class Highway {
             return adjacencyMatrix.size();
         }
 
+        /**
+         * Copies graph into {@link CompactGraph}.
+         * 
+         * @return Immutable copy of the graph.
+         */
+        public CompactGraph toCompact() {
+            int size = 0;
+
+            for (Set<Integer> neighbors : adjacencyMatrix.values()) {
+                size += neighbors.size();
+            }
+
+            int[] sources = new int[size];
+            int[] targets = new int[size];
+            size = 0;
+
+            for (Map.Entry<Integer, Set<Integer>> entry : adjacencyMatrix
+                    .entrySet()) {
+                for (Integer neighbor : entry.getValue()) {
+                    sources[size] = entry.getKey();
+                    targets[size++] = neighbor;
+                }
+            }
+
+            return new CompactGraph(sources, targets);
+        }
+
         /**
          * Removes edge from two nodes in adjacency matrix.
          * 
@@ -236,140 +336,135 @@ public class Highway {
     }
 
     /**
-     * Traversal class contains methods for traversing a graph.
+     * Traversal class contains methods for traversing a graph. Graph is kept
+     * in {@link CompactGraph}, nodes are marked in arrays by their indexes,
+     * and depth first searches keep their own stacks of nodes and positions of
+     * next neighbors.
      */
     public class Traversal {
 
         /**
-         * Map contains colors for graph.
+         * Colors of nodes, or -1 for node without color.
          */
-        private Map<Integer, Integer> colors;
+        private int[] colors;
 
         /**
-         * HashSet to mark nodes which already cycled in current traversal.
+         * Array to mark nodes which already cycled in current traversal.
          */
-        private Set<Integer> cycled = new HashSet<Integer>();
+        private boolean[] cycled;
 
         /**
          * Object of graph to make operation on it.
          */
-        private Graph graph;
+        private CompactGraph graph;
 
         /**
-         * Next node in traversal.
+         * Next node in traversal, or -1 before the first one.
          */
-        private Integer nextNode;
+        private int nextNode = -1;
+
+        /**
+         * Positions of next neighbors of nodes on stack.
+         */
+        private int[] positions;
 
         /**
          * Previous node in traversal.
          */
-        private Integer previousNode;
+        private int previousNode = -1;
 
         /**
          * Variable contains the result for graph.
          */
         private Graph result;
 
+        /**
+         * Nodes on stack of depth first search.
+         */
+        private int[] stack;
+
         /**
          * Target for node.
          */
-        private Integer target;
+        private int target;
 
         /**
          * Constructor.
          * 
          * @param graph
          */
-        public Traversal(Graph graph) {
+        public Traversal(CompactGraph graph) {
             this.graph = graph;
+            cycled = new boolean[graph.quantityNode()];
+
+            // Node is pushed once for every new edge of result, or once for
+            // every node.
+            int capacity = Math.max(graph.quantityNode(),
+                    graph.quantityEdges() + 1) + 1;
+            stack = new int[capacity];
+            positions = new int[capacity];
         }
 
         /**
-         * Method makes pieces of roads combine.
+         * Constructor. Graph is copied into {@link CompactGraph}.
+         * 
+         * @param graph
+         */
+        public Traversal(Graph graph) {
+            this(graph.toCompact());
+        }
+
+        /**
+         * Method makes pieces of roads combine. Nodes of the cycle close the
+         * piece and are not entered.
          * 
          * @param cycle
          *            The current cycle into graph.
          * @param node
+         *            Index of node.
          */
-        private void createPiece(Graph cycle, Integer node) {
-            if (!cycle.hasNode(node)) {
-                cycled.add(node);
+        private void createPiece(Graph cycle, int node) {
+            int top = 0;
 
-                for (Integer neighbor : graph.getAdjacent(node)) {
-                    if (!result.hasEdge(neighbor, node)) {
-                        result.addEdge(node, neighbor);
-                        createPiece(cycle, neighbor);
-                    }
-                }
+            if (!cycle.hasNode(graph.getLocation(node))) {
+                cycled[node] = true;
+                top = push(top, node);
             }
-        }
 
-        /**
-         * Method finds any cycle in graph.
-         * 
-         * @return
-         */
-        public Graph findCycle() {
-            cycled.clear();
-            result = new Graph();
-            target = graph.getNodes().iterator().next();
+            while (top > 0) {
+                int current = stack[top - 1];
 
-            return findCycle(target);
+                if (positions[top - 1] == graph.getLastNeighbor(current)) {
+                    top--;
+                    continue;
+                }
 
-        }
+                int neighbor = graph.getNeighbor(positions[top - 1]++);
+                Integer location = graph.getLocation(current);
+                Integer neighborLocation = graph.getLocation(neighbor);
 
-        /**
-         * Method finding cycle from current node.
-         * 
-         * @param node
-         *            The current node
-         * @return A cycle
-         */
-        private Graph findCycle(Integer node) {
-            cycled.add(node);
-
-            for (Integer neighbor : graph.getAdjacent(node)) {
-                if (neighbor.equals(target) && result.quantityNode() > 2) {
-                    result.addEdge(node, neighbor);
-                    return result;
-                } else if (!cycled.contains(neighbor)) {
-                    result.addEdge(node, neighbor);
-                    Graph completedCycle = findCycle(neighbor);
-
-                    if (completedCycle != null) {
-                        return completedCycle;
-                    }
+                if (!result.hasEdge(neighborLocation, location)) {
+                    result.addEdge(location, neighborLocation);
 
-                    result.removeEdge(node, neighbor);
+                    if (!cycle.hasNode(neighborLocation)) {
+                        cycled[neighbor] = true;
+                        top = push(top, neighbor);
+                    }
                 }
             }
-
-            return null;
         }
 
         /**
-         * This method finds path.
+         * Method finds any cycle in graph.
          * 
-         * @param node
-         *            Current node in the path.
-         * @return true if the path was found, or false if was not.
+         * @return
          */
-        private boolean findPath(Integer node) {
-            cycled.add(node);
+        public Graph findCycle() {
+            Arrays.fill(cycled, false);
+            result = new Graph();
+            target = 0;
 
-            for (Integer neighbor : graph.getAdjacent(node)) {
-                if (neighbor.equals(target)) {
-                    result.addEdge(node, neighbor);
-                    return true;
-                } else if (!cycled.contains(neighbor)) {
-                    result.addEdge(node, neighbor);
-                    if (findPath(neighbor)) {
-                        return true;
-                    }
-                    result.removeEdge(node, neighbor);
-                }
-            }
-            return false;
+            return search(target, 3) ? result : null;
         }
 
         /**
@@ -385,12 +480,20 @@ public class Highway {
          */
         public Graph findPath(Integer startNode, Integer endNode,
                 Collection<Integer> prohibited) {
-            cycled.clear();
-            cycled.addAll(prohibited);
+            Arrays.fill(cycled, false);
+
+            for (Integer location : prohibited) {
+                int node = graph.index(location);
+
+                if (node >= 0) {
+                    cycled[node] = true;
+                }
+            }
+
             result = new Graph();
-            target = endNode;
+            target = graph.index(endNode);
 
-            return findPath(startNode) ? result : null;
+            return search(graph.index(startNode), 0) ? result : null;
         }
 
         /**
@@ -399,61 +502,123 @@ public class Highway {
          * @return the next node in cycle.
          */
         public Integer getCycle() {
-            if (nextNode == null) {
-                previousNode = graph.getNodes().iterator().next();
-                nextNode = graph.getAdjacent(previousNode).iterator().next();
+            if (nextNode < 0) {
+                previousNode = 0;
+                nextNode = graph.getNeighbor(graph.getFirstNeighbor(0));
             } else {
-                for (Integer neighbor : graph.getAdjacent(nextNode)) {
-                    if (!neighbor.equals(previousNode)) {
+                for (int i = graph.getFirstNeighbor(nextNode); i < graph
+                        .getLastNeighbor(nextNode); i++) {
+                    int neighbor = graph.getNeighbor(i);
+
+                    if (neighbor != previousNode) {
                         previousNode = nextNode;
                         nextNode = neighbor;
                         break;
                     }
                 }
             }
-            return previousNode;
+            return graph.getLocation(previousNode);
         }
 
         /**
-         * This method check if the graph is duplex or not.
+         * This method check if the graph is duplex or not. Nodes are colored
+         * by depth first search, started from every node, which is not
+         * colored yet, so every component of the graph is checked.
          * 
          * @return True if graph is duplex, or false if not.
          */
         public boolean isDuplex() {
-            if (graph.quantityNode() == 0) {
-                return true;
+            colors = new int[graph.quantityNode()];
+            Arrays.fill(colors, -1);
+
+            for (int first = 0; first < graph.quantityNode(); first++) {
+                if (colors[first] >= 0) {
+                    continue;
+                }
+
+                colors[first] = 1;
+                int top = push(0, first);
+
+                while (top > 0) {
+                    int current = stack[top - 1];
+
+                    if (positions[top - 1] == graph.getLastNeighbor(current)) {
+                        top--;
+                        continue;
+                    }
+
+                    int neighbor = graph.getNeighbor(positions[top - 1]++);
+
+                    if (colors[neighbor] < 0) {
+                        colors[neighbor] = 1 - colors[current];
+                        top = push(top, neighbor);
+                    } else if (colors[neighbor] == colors[current]) {
+                        return false;
+                    }
+                }
             }
 
-            colors = new HashMap<Integer, Integer>();
-            return isDuplex(graph.getNodes().iterator().next(), true);
+            return true;
         }
 
         /**
-         * Checks if graph is duplex for current node.
+         * Pushes node on stack, with position of its first neighbor.
          * 
+         * @param top
+         *            Amount of nodes on stack.
          * @param node
-         *            The current node.
-         * @param color
-         *            To coloring node.
-         * @return True if method do not found conflicts, or false is found.
-         */
-        private boolean isDuplex(Integer node, boolean color) {
-            if (colors.containsKey(node)) {
-                if (!colors.get(node).equals(color ? 1 : 0)) {
-                    return false;
-                } else {
-                    return true;
-                }
-            } else {
-                colors.put(node, color ? 1 : 0);
-                boolean duplex = true;
+         *            Index of node.
+         * @return New amount of nodes on stack.
+         */
+        private int push(int top, int node) {
+            stack[top] = node;
+            positions[top] = graph.getFirstNeighbor(node);
+            return top + 1;
+        }
 
-                for (Integer neighbor : graph.getAdjacent(node)) {
-                    duplex = duplex && isDuplex(neighbor, !color);
+        /**
+         * Depth first search for target, the current path is kept in result.
+         * 
+         * @param node
+         *            Index of the starting node.
+         * @param minimum
+         *            Least amount of nodes in the path, when target is
+         *            reached.
+         * @return true if target was reached, or false if was not.
+         */
+        private boolean search(int node, int minimum) {
+            cycled[node] = true;
+            int top = push(0, node);
+
+            while (top > 0) {
+                int current = stack[top - 1];
+
+                if (positions[top - 1] == graph.getLastNeighbor(current)) {
+                    top--;
+
+                    if (top > 0) {
+                        result.removeEdge(graph.getLocation(stack[top - 1]),
+                                graph.getLocation(current));
+                    }
+
+                    continue;
                 }
 
-                return duplex;
+                int neighbor = graph.getNeighbor(positions[top - 1]++);
+
+                if (neighbor == target && result.quantityNode() >= minimum) {
+                    result.addEdge(graph.getLocation(current),
+                            graph.getLocation(neighbor));
+                    return true;
+                } else if (!cycled[neighbor]) {
+                    result.addEdge(graph.getLocation(current),
+                            graph.getLocation(neighbor));
+                    cycled[neighbor] = true;
+                    top = push(top, neighbor);
+                }
             }
+
+            return false;
         }
 
         /**
@@ -462,19 +627,27 @@ public class Highway {
          * 
          * @param cycle
          *            The current cycle into graph.
-         * @return Set which containing all pieces of the graph.
+         * @return List which containing all pieces of the graph, in order of
+         *         finding, so pieces are checked in the same order on every
+         *         run.
          */
-        public Set<Graph> splitIntoPieces(Graph cycle) {
-            cycled.clear();
-            Set<Graph> pieces = new HashSet<Graph>();
+        public List<Graph> splitIntoPieces(Graph cycle) {
+            Arrays.fill(cycled, false);
+            List<Graph> pieces = new ArrayList<Graph>();
+
+            for (Integer location : cycle.getNodes()) {
+                int node = graph.index(location);
+                cycled[node] = true;
+
+                for (int i = graph.getFirstNeighbor(node); i < graph
+                        .getLastNeighbor(node); i++) {
+                    int neighbor = graph.getNeighbor(i);
+                    Integer neighborLocation = graph.getLocation(neighbor);
 
-            for (Integer node : cycle.getNodes()) {
-                cycled.add(node);
-                for (Integer neighbor : graph.getAdjacent(node)) {
-                    if (!cycled.contains(neighbor)
-                            && !cycle.hasEdge(neighbor, node)) {
+                    if (!cycled[neighbor]
+                            && !cycle.hasEdge(neighborLocation, location)) {
                         result = new Graph();
-                        result.addEdge(node, neighbor);
+                        result.addEdge(location, neighborLocation);
                         createPiece(cycle, neighbor);
                         pieces.add(result);
                     }
@@ -484,10 +657,28 @@ public class Highway {
         }
     }
 
+    /**
+     * Name of engine, which checks planarity with Left-Right planarity test in
+     * linear time.
+     */
+    public static final String LEFT_RIGHT = "lr";
+
+    /**
+     * Name of engine, which checks planarity by splitting graph into pieces
+     * around cycle.
+     */
+    public static final String PIECES = "pieces";
+
     /**
      * Object contains nodes for the island structure.
      */
-    private Graph graph = new Graph();
+    private CompactGraph graph;
+
+    /**
+     * Set when any block of graph is not planar, so checking of other blocks
+     * can stop.
+     */
+    private final AtomicBoolean nonPlanar = new AtomicBoolean();
 
     /**
      * Set contains representation for non interlaced graph of length four.
@@ -508,37 +699,42 @@ public class Highway {
     /**
      * Constructor. The core of problem. Initializes graph with edges what mean
      * cities with highways. Also set status for possibility to build highways.
+     * Planarity is checked by Left-Right planarity test, which is linear.
      * 
      * @param locations
      */
     public Highway(ArrayList<Integer> locations) {
+        this(locations, LEFT_RIGHT);
+    }
+
+    /**
+     * Constructor. The core of problem. Initializes graph with edges what mean
+     * cities with highways. Also set status for possibility to build highways.
+     * 
+     * @param locations
+     * @param engine
+     *            Engine checking planarity, {@link #PIECES} or
+     *            {@link #LEFT_RIGHT}.
+     */
+    public Highway(ArrayList<Integer> locations, String engine) {
+        if (!isEngine(engine)) {
+            throw new IllegalArgumentException("Unknown engine : " + engine);
+        }
+
         setQuantityOfNodes(locations.get(0));
 
         if (getQuantityOfNodes() > 2 && locations.size() > 3
                 && locations.get(1) > 1) {
+            int[][] edges = createEdges(locations);
 
-            creatNodes(getQuantityOfNodes());
-
-            for (int i = 2; i < locations.size(); i += 2) {
-                if (locations.get(i) <= getQuantityOfNodes()
-                        && locations.get(i) > 0
-                        && locations.get(i + 1) <= getQuantityOfNodes()
-                        && locations.get(i + 1) > 0) {
-                    graph.addEdge(locations.get(i), locations.get(i + 1));
-                } else {
-                    this.status = 0;
-                }
-            }
-
-            try {
-                Graph cycle = (new Traversal(graph)).findCycle();
+            if (edges == null) {
+                this.status = 0;
+            } else {
+                graph = new CompactGraph(edges[0], edges[1]);
 
-                if (!checkPlanarity(graph, cycle)) {
+                if (!checkBlocks(engine)) {
                     this.status = 0;
                 }
-            } catch (StackOverflowError e) {
-                System.out.println("Wynik : 1");
-                System.exit(1);
             }
 
         } else {
@@ -548,155 +744,273 @@ public class Highway {
     }
 
     /**
-     * This method checks the planarity of graph. Method is described in
-     * "Graph Drawing: Algorithms for the Visualization of Graphs" book written
-     * by Ioannis G. Tollis, Giuseppe Di Battista, Peter Eades, Roberto
-     * Tamassia.
+     * Every node of cycle gets its position once, and pieces are compared by
+     * positions of their nodes on cycle.
      * 
-     * @param graph
+     * @param pieces
      * @param cycle
-     * @return true if the graph is planar, or false is not.
+     *            The cycle of main graph.
+     * @return Sorted positions on cycle of nodes of every piece, in order of
+     *         pieces.
      */
-    private boolean checkPlanarity(Graph graph, Graph cycle) {
-        if (graph.quantityEdges() > 3 * graph.quantityNode() - 6) {
-            return false;
+    private int[][] attachments(Collection<Graph> pieces, Graph cycle) {
+        Map<Integer, Integer> positions = new HashMap<Integer, Integer>();
+        Traversal traversal = new Traversal(cycle);
+
+        for (int k = 0; k < cycle.quantityNode(); k++) {
+            positions.put(traversal.getCycle(), k);
         }
 
-        Set<Graph> pieces = (new Traversal(graph)).splitIntoPieces(cycle);
+        int[][] attachments = new int[pieces.size()][];
+        int i = 0;
 
-        if (!createPieces(pieces, graph, cycle)) {
-            return false;
+        for (Graph piece : pieces) {
+            int[] nodes = new int[piece.quantityNode()];
+            int quantity = 0;
+
+            for (Integer node : piece.getNodes()) {
+                Integer position = positions.get(node);
+
+                if (position != null) {
+                    nodes[quantity++] = position;
+                }
+            }
+
+            attachments[i] = Arrays.copyOf(nodes, quantity);
+            Arrays.sort(attachments[i++]);
         }
 
-        return interlacement(pieces, cycle);
+        return attachments;
     }
 
     /**
-     * This method create and check if are cycled.
+     * This method checks the planarity of every biconnected block of graph.
+     * Graph is planar if and only if all its blocks are planar. Blocks are
+     * checked in parallel, and checking stops, when any block is not planar.
      * 
-     * @param pieces
-     *            Set to check.
-     * @param graph
-     *            The main graph
-     * @param cycle
-     *            The cycle of main graph.
-     * @return True if is still planarity, or false if is not.
+     * @param engine
+     *            Engine checking planarity of blocks.
+     * @return true if the graph is planar, or false if is not.
      */
-    private boolean createPieces(Set<Graph> pieces, Graph graph, Graph cycle) {
-        for (Graph piece : pieces) {
-            if (!graph.checkPath(piece)) {
-
-                Integer startNode = null;
-
-                for (Integer node : cycle.getNodes()) {
-                    if (piece.hasNode(node)) {
-                        startNode = node;
-                        break;
-                    }
-                }
-
-                Graph cycleSegment = new Graph(cycle);
-                Integer previousNode = startNode;
-                Integer currentNode = cycle.getAdjacent(previousNode)
-                        .iterator().next();
+    private boolean checkBlocks(String engine) {
+        // Highway from city to itself is counted as half of edge by
+        // quantityEdges, so the limit is checked for whole graph, before
+        // loops are dropped from blocks.
+        if (graph.quantityEdges() > 3 * graph.quantityNode() - 6) {
+            return false;
+        }
 
-                cycleSegment.removeEdge(previousNode, currentNode);
+        List<CompactGraph> blocks = new BiconnectedComponents(graph)
+                .getBlocks();
 
-                while (!piece.hasNode(currentNode)) {
-                    for (Integer node : cycle.getAdjacent(currentNode)) {
-                        if (!node.equals(previousNode)) {
-                            previousNode = currentNode;
-                            currentNode = node;
-                            break;
-                        }
-                    }
-                    cycleSegment.removeEdge(previousNode, currentNode);
-                }
+        if (blocks.size() == 1) {
+            return checkBlock(blocks.get(0), engine);
+        }
 
-                Integer endNode = currentNode;
+        ForkJoinPool.commonPool().invoke(
+                new BlockCheck(blocks, 0, blocks.size(), engine));
 
-                Traversal traversal = new Traversal(piece);
-                Graph piecePath = traversal.findPath(startNode, endNode,
-                        cycle.getNodes());
+        return !nonPlanar.get();
+    }
 
-                Graph pieceGraph = graph.addGraphs(cycle, piece);
-                Graph cycleGraph = graph.addGraphs(cycleSegment, piecePath);
+    /**
+     * This method checks the planarity of one biconnected block.
+     * 
+     * @param block
+     * @param engine
+     *            Engine checking planarity, {@link #PIECES} or
+     *            {@link #LEFT_RIGHT}.
+     * @return true if the block is planar, or false if is not.
+     */
+    private boolean checkBlock(CompactGraph block, String engine) {
+        if (block.quantityNode() < 5) {
+            return true;
+        } else if (engine.equals(LEFT_RIGHT)) {
+            return checkLeftRight(block);
+        } else {
+            return checkPlanarity(block, (new Traversal(block)).findCycle());
+        }
+    }
 
-                if (!checkPlanarity(pieceGraph, cycleGraph)) {
-                    return false;
+    /**
+     * This method checks the planarity of graph with Left-Right planarity
+     * test. Edges are passed to {@link LeftRightPlanarity} in arrays, with
+     * nodes numbered by indexes of graph.
+     * 
+     * @param block
+     * @return true if the graph is planar, or false if is not.
+     */
+    private boolean checkLeftRight(CompactGraph block) {
+        int[] sources = new int[2 * block.quantityEdges()];
+        int[] targets = new int[sources.length];
+        int edge = 0;
+
+        for (int node = 0; node < block.quantityNode(); node++) {
+            for (int i = block.getFirstNeighbor(node); i < block
+                    .getLastNeighbor(node); i++) {
+                if (node < block.getNeighbor(i)) {
+                    sources[edge] = node;
+                    targets[edge++] = block.getNeighbor(i);
                 }
             }
         }
-        return true;
+
+        return new LeftRightPlanarity(block.quantityNode(),
+                Arrays.copyOf(sources, edge), Arrays.copyOf(targets, edge))
+                .isPlanar();
     }
 
     /**
-     * This method initializing graph with basic connections of nodes what mean
-     * cities with roads, and natural border - sea;
+     * This method checks the planarity of graph. Method is described in
+     * "Graph Drawing: Algorithms for the Visualization of Graphs" book written
+     * by Ioannis G. Tollis, Giuseppe Di Battista, Peter Eades, Roberto
+     * Tamassia. Every piece, which is not a path, is checked as new graph
+     * before interlacement of pieces. Graphs being checked are kept on stack,
+     * with their cycles, positions of pieces on cycle and pieces left to
+     * check, instead of checking them recursively. Graph of piece is built
+     * from cycle, piece and path, so it can be almost as big as checked
+     * graph, and time is O(n^2) in the worst case, for example for island
+     * with all highways from one city.
      * 
-     * @param quantity
-     *            of cities
+     * @param graph
+     * @param cycle
+     * @return true if the graph is planar, or false is not.
      */
-    private void creatNodes(Integer quantity) {
-        for (int location = 1; location < quantity; location++) {
-            graph.addEdge(location, location + 1);
+    private boolean checkPlanarity(CompactGraph graph, Graph cycle) {
+        Deque<Graph> cycles = new ArrayDeque<Graph>();
+        Deque<int[][]> attachments = new ArrayDeque<int[][]>();
+        Deque<Deque<Graph>> nextPieces = new ArrayDeque<Deque<Graph>>();
+        CompactGraph nextGraph = graph;
+        Graph nextCycle = cycle;
+
+        while (true) {
+            if (nonPlanar.get()) {
+                // Other block is not planar, result is not needed.
+                return false;
+            } else if (nextGraph != null) {
+                if (nextGraph.quantityEdges()
+                        > 3 * nextGraph.quantityNode() - 6) {
+                    return false;
+                }
+
+                List<Graph> nextList = (new Traversal(nextGraph))
+                        .splitIntoPieces(nextCycle);
+
+                // Graph and its pieces are not kept, only positions of pieces
+                // on cycle, so memory does not grow with every level.
+                cycles.push(nextCycle);
+                attachments.push(attachments(nextList, nextCycle));
+                nextPieces.push(new ArrayDeque<Graph>(nextList));
+                nextGraph = null;
+            } else if (!nextPieces.peek().isEmpty()) {
+                Graph[] next = createPieceGraph(nextPieces.peek().poll(),
+                        cycles.peek());
+
+                if (next != null) {
+                    nextGraph = next[0].toCompact();
+                    nextCycle = next[1];
+                }
+            } else {
+                cycles.pop();
+                nextPieces.pop();
+
+                if (!interlacement(attachments.pop())) {
+                    return false;
+                }
+
+                if (cycles.isEmpty()) {
+                    return true;
+                }
+            }
         }
-        graph.addEdge(1, quantity);
     }
 
     /**
-     * Fills list of chars for graph.
+     * This method create graph for piece, which is not a path. Such graph,
+     * with its cycle, has to be checked for planarity too.
      * 
+     * @param piece
+     *            Piece to check.
      * @param cycle
-     * @param combine
-     * @param pieceArray
-     * @param i
+     *            The cycle of main graph.
+     * @return Graph of cycle with piece and its cycle, or null if piece is a
+     *         path.
      */
-    private void fillListOfChar(Graph cycle, Graph combine,
-            Object[] pieceArray, int i) {
-        Graph testGraph = (Graph) pieceArray[i];
-
-        for (int j = i + 1; j < pieceArray.length; j++) {
-            Graph compareGraph = (Graph) pieceArray[j];
-            Traversal traversal = new Traversal(cycle);
-            String listofChar = new String();
-            Integer quantityBoth = 0;
-            char lastChar = ' ';
-
-            for (int k = 0; k < cycle.quantityNode(); k++) {
-                Integer node = traversal.getCycle();
-
-                if (testGraph.hasNode(node) && compareGraph.hasNode(node)) {
-                    quantityBoth++;
-                    listofChar += 'b';
-                    lastChar = 'b';
-                } else if (testGraph.hasNode(node) && lastChar != 't') {
-                    listofChar += 't';
-                    lastChar = 't';
-                } else if (compareGraph.hasNode(node) && lastChar != 'c') {
-                    listofChar += 'c';
-                    lastChar = 'c';
-                }
-            }
+    private Graph[] createPieceGraph(Graph piece, Graph cycle) {
+        if (cycle.checkPath(piece)) {
+            return null;
+        }
 
-            if ((lastChar == 't' || lastChar == 'c')
-                    && listofChar.charAt(0) == lastChar) {
-                listofChar = listofChar.substring(1);
+        Integer startNode = null;
+
+        for (Integer node : cycle.getNodes()) {
+            if (piece.hasNode(node)) {
+                startNode = node;
+                break;
             }
+        }
+
+        Graph cycleSegment = new Graph(cycle);
+        Integer previousNode = startNode;
+        Integer currentNode = cycle.getAdjacent(previousNode)
+                .iterator().next();
 
-            boolean interlaced = false;
+        cycleSegment.removeEdge(previousNode, currentNode);
 
-            if (listofChar.length() > 4 || quantityBoth > 2) {
-                interlaced = true;
-            } else if (listofChar.length() == 4
-                    && !notInterlacedSet.contains(listofChar)) {
-                interlaced = true;
+        while (!piece.hasNode(currentNode)) {
+            for (Integer node : cycle.getAdjacent(currentNode)) {
+                if (!node.equals(previousNode)) {
+                    previousNode = currentNode;
+                    currentNode = node;
+                    break;
+                }
             }
+            cycleSegment.removeEdge(previousNode, currentNode);
+        }
 
-            if (interlaced) {
-                combine.addEdge(i, j);
+        Integer endNode = currentNode;
+
+        Traversal traversal = new Traversal(piece);
+        Graph piecePath = traversal.findPath(startNode, endNode,
+                cycle.getNodes());
+
+        Graph pieceGraph = cycle.addGraphs(cycle, piece);
+        Graph cycleGraph = cycle.addGraphs(cycleSegment, piecePath);
+
+        return new Graph[] { pieceGraph, cycleGraph };
+    }
+
+    /**
+     * This method creates edges of graph with basic connections of nodes what
+     * mean cities with roads, and natural border - sea, and with highways.
+     * 
+     * @param locations
+     * @return First and second city of every edge, or null if some highway
+     *         goes out of the island.
+     */
+    private int[][] createEdges(ArrayList<Integer> locations) {
+        int quantity = getQuantityOfNodes();
+        int highways = (locations.size() - 2) / 2;
+        int[] sources = new int[quantity + highways];
+        int[] targets = new int[quantity + highways];
+
+        for (int location = 1; location <= quantity; location++) {
+            sources[location - 1] = location;
+            targets[location - 1] = location % quantity + 1;
+        }
+
+        for (int i = 2, edge = quantity; i + 1 < locations.size(); i += 2) {
+            if (locations.get(i) > quantity || locations.get(i) <= 0
+                    || locations.get(i + 1) > quantity
+                    || locations.get(i + 1) <= 0) {
+                return null;
             }
+
+            sources[edge] = locations.get(i);
+            targets[edge++] = locations.get(i + 1);
         }
+
+        return new int[][] { sources, targets };
     }
 
     /**
@@ -715,24 +1029,110 @@ public class Highway {
     }
 
     /**
-     * This method check if possible interlacement for graph.
+     * Checks if name of engine is known.
      * 
-     * @param pieces
-     *            Set to check.
-     * @param cycle
-     *            The cycle of main graph.
+     * @param engine
+     * @return true if engine is {@link #PIECES} or {@link #LEFT_RIGHT}.
      */
-    private boolean interlacement(Set<Graph> pieces, Graph cycle) {
-        Graph combine = new Graph();
-        Object[] pieceArray = pieces.toArray();
+    public static boolean isEngine(String engine) {
+        return PIECES.equals(engine) || LEFT_RIGHT.equals(engine);
+    }
 
-        for (int i = 0; i < pieceArray.length; i++) {
-            fillListOfChar(cycle, combine, pieceArray, i);
+    /**
+     * This method check if possible interlacement for graph. Pairs of
+     * interlaced pieces are gathered in arrays, in ascending order, and
+     * graph of them is built at once, without sorting.
+     * 
+     * @param attachments
+     *            Sorted positions on cycle of nodes of every piece.
+     */
+    private boolean interlacement(int[][] attachments) {
+        int[] sources = new int[attachments.length];
+        int[] targets = new int[attachments.length];
+        int quantity = 0;
+
+        for (int i = 0; i < attachments.length; i++) {
+            for (int j = i + 1; j < attachments.length; j++) {
+                if (isInterlaced(attachments[i], attachments[j])) {
+                    if (quantity == sources.length) {
+                        sources = Arrays.copyOf(sources, 2 * quantity);
+                        targets = Arrays.copyOf(targets, 2 * quantity);
+                    }
+
+                    sources[quantity] = i;
+                    targets[quantity++] = j;
+                }
+            }
         }
 
+        CompactGraph combine = new CompactGraph(attachments.length, sources,
+                targets, quantity);
+
         return (new Traversal(combine)).isDuplex();
     }
 
+    /**
+     * This method checks if two pieces are interlaced. Positions of both
+     * pieces are merged into list of chars: 'b' for node of both pieces, 't'
+     * for nodes of tested piece only and 'c' for nodes of compared piece
+     * only, where following 't' or 'c' are written once. Merging stops, when
+     * list is too long for pieces not to be interlaced.
+     * 
+     * @param test
+     *            Sorted positions of tested piece.
+     * @param compare
+     *            Sorted positions of compared piece.
+     * @return true if pieces are interlaced, or false if are not.
+     */
+    private boolean isInterlaced(int[] test, int[] compare) {
+        char[] listOfChar = new char[5];
+        int length = 0;
+        int quantityBoth = 0;
+        char lastChar = ' ';
+        int i = 0;
+        int j = 0;
+
+        while (i < test.length || j < compare.length) {
+            char nextChar;
+
+            if (j == compare.length || i < test.length
+                    && test[i] < compare[j]) {
+                nextChar = 't';
+                i++;
+            } else if (i == test.length || compare[j] < test[i]) {
+                nextChar = 'c';
+                j++;
+            } else {
+                nextChar = 'b';
+                i++;
+                j++;
+
+                if (++quantityBoth > 2) {
+                    return true;
+                }
+            }
+
+            if (nextChar == 'b' || nextChar != lastChar) {
+                if (length == listOfChar.length) {
+                    // Even without first char list is longer than four.
+                    return true;
+                }
+
+                listOfChar[length++] = nextChar;
+                lastChar = nextChar;
+            }
+        }
+
+        int start = 0;
+
+        if ((lastChar == 't' || lastChar == 'c') && listOfChar[0] == lastChar) {
+            start = 1;
+        }
+
+        return length - start > 4 || length - start == 4
+                && !notInterlacedSet.contains(new String(listOfChar, start, 4));
+    }
+
     /**
      * Method creates non interlaces set for graph.
      * 
@@ -0,0 +1,606 @@
+import java.util.Arrays;
+
+/**
+ * Project Praca domowa 03 – highway.
+ * Copyright Michał Szczygieł
+ * Created at Oct 30, 2013.
+ */
+
+/**
+ * 
+ * LeftRightPlanarity class, checks planarity of graph in O(n + m) time, with
+ * Left-Right planarity test described in "The Left-Right Planarity Test"
+ * written by Ulrik Brandes. First depth first search orients edges and counts
+ * lowpoints and nesting depths. Second search visits edges ordered by nesting
+ * depth and keeps conflict pairs of return edges on stack, graph is not
+ * planar when return edges can not be placed on two sides. Both searches keep
+ * their own stacks. Nodes are numbers from 0, and edges are kept in arrays.
+ * 
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ * 
+ */
+public class LeftRightPlanarity {
+
+    /**
+     * Value for missing node, edge or height.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * For every node, index of its first edge in incidence arrays, and size of
+     * incidence arrays at the end.
+     */
+    private int[] firstIncident;
+
+    /**
+     * Height of node in depth first search tree.
+     */
+    private int[] height;
+
+    /**
+     * Edges incident to nodes, grouped by nodes.
+     */
+    private int[] incidentEdges;
+
+    /**
+     * Conflict pairs on stack: lowest and highest return edges of left and
+     * right interval.
+     */
+    private int[] leftHigh, leftLow, rightHigh, rightLow;
+
+    /**
+     * Lowest height of return edge from edge or its subtree.
+     */
+    private int[] lowpt;
+
+    /**
+     * Second lowest height of return edge from edge or its subtree.
+     */
+    private int[] lowpt2;
+
+    /**
+     * Return edge with the lowest lowpoint, for tree edges.
+     */
+    private int[] lowptEdge;
+
+    /**
+     * Amount of nodes.
+     */
+    private int nodes;
+
+    /**
+     * For every node, index of its first outgoing edge in ordered edges, and
+     * amount of edges at the end.
+     */
+    private int[] firstOrdered;
+
+    /**
+     * Outgoing edges of nodes, grouped by nodes and ordered by nesting depth.
+     */
+    private int[] orderedEdges;
+
+    /**
+     * Tree edge entering node, or {@link #NONE} for roots.
+     */
+    private int[] parentEdge;
+
+    /**
+     * Next return edge in interval, used while intervals are trimmed.
+     */
+    private int[] ref;
+
+    /**
+     * Amount of conflict pairs on stack.
+     */
+    private int size = 0;
+
+    /**
+     * Oriented source of edge.
+     */
+    private int[] sources;
+
+    /**
+     * Amount of conflict pairs on stack, when edge was entered.
+     */
+    private int[] stackBottom;
+
+    /**
+     * Oriented target of edge.
+     */
+    private int[] targets;
+
+    /**
+     * Constructor. Loops and repeated edges are skipped, they do not change
+     * planarity.
+     * 
+     * @param nodes
+     *            Amount of nodes.
+     * @param sources
+     *            First node of every edge.
+     * @param targets
+     *            Second node of every edge.
+     */
+    public LeftRightPlanarity(int nodes, int[] sources, int[] targets) {
+        long[] keys = new long[sources.length];
+        int edges = 0;
+
+        for (int i = 0; i < sources.length; i++) {
+            if (sources[i] != targets[i]) {
+                keys[edges++] = (long) Math.min(sources[i], targets[i]) << 32
+                        | Math.max(sources[i], targets[i]);
+            }
+        }
+
+        keys = Arrays.copyOf(keys, edges);
+        Arrays.sort(keys);
+        edges = 0;
+
+        for (int i = 0; i < keys.length; i++) {
+            if (i == 0 || keys[i] != keys[i - 1]) {
+                keys[edges++] = keys[i];
+            }
+        }
+
+        this.nodes = nodes;
+        this.sources = new int[edges];
+        this.targets = new int[edges];
+        firstIncident = new int[nodes + 1];
+
+        for (int i = 0; i < edges; i++) {
+            this.sources[i] = (int) (keys[i] >>> 32);
+            this.targets[i] = (int) keys[i];
+            firstIncident[this.sources[i] + 1]++;
+            firstIncident[this.targets[i] + 1]++;
+        }
+
+        for (int i = 0; i < nodes; i++) {
+            firstIncident[i + 1] += firstIncident[i];
+        }
+
+        int[] next = Arrays.copyOf(firstIncident, nodes);
+        incidentEdges = new int[2 * edges];
+
+        for (int i = 0; i < edges; i++) {
+            incidentEdges[next[this.sources[i]]++] = i;
+            incidentEdges[next[this.targets[i]]++] = i;
+        }
+    }
+
+    /**
+     * Adds constraints of edge, which has return edges, to constraints of its
+     * parent edge. Return edges of the edge have to be on one side, and
+     * return edges of previous edges, which conflict with them, on the other.
+     * 
+     * @param edge
+     *            Outgoing edge of node.
+     * @param parent
+     *            Tree edge entering node.
+     * @return true if constraints can be satisfied, or false if can not.
+     */
+    private boolean addConstraints(int edge, int parent) {
+        int pLeftLow = NONE;
+        int pLeftHigh = NONE;
+        int pRightLow = NONE;
+        int pRightHigh = NONE;
+
+        // Return edges of the edge are merged into right interval.
+        do {
+            size--;
+
+            if (leftLow[size] != NONE) {
+                swap(size);
+            }
+
+            if (leftLow[size] != NONE) {
+                return false;
+            }
+
+            if (lowpt[rightLow[size]] > lowpt[parent]) {
+                if (pRightLow == NONE) {
+                    pRightHigh = rightHigh[size];
+                } else {
+                    ref[pRightLow] = rightHigh[size];
+                }
+
+                pRightLow = rightLow[size];
+            } else {
+                ref[rightLow[size]] = lowptEdge[parent];
+            }
+        } while (size != stackBottom[edge]);
+
+        // Conflicting return edges of previous edges are merged into left
+        // interval.
+        while (size > 0
+                && (conflicting(leftHigh[size - 1], edge)
+                || conflicting(rightHigh[size - 1], edge))) {
+            size--;
+
+            if (conflicting(rightHigh[size], edge)) {
+                swap(size);
+            }
+
+            if (conflicting(rightHigh[size], edge)) {
+                return false;
+            }
+
+            if (pRightLow != NONE) {
+                ref[pRightLow] = rightHigh[size];
+            }
+
+            if (rightLow[size] != NONE) {
+                pRightLow = rightLow[size];
+            }
+
+            if (pLeftLow == NONE) {
+                pLeftHigh = leftHigh[size];
+            } else {
+                ref[pLeftLow] = leftHigh[size];
+            }
+
+            pLeftLow = leftLow[size];
+        }
+
+        if (pLeftLow != NONE || pRightLow != NONE) {
+            push(pLeftLow, pLeftHigh, pRightLow, pRightHigh);
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks if interval conflicts with edge.
+     * 
+     * @param high
+     *            Highest return edge of interval.
+     * @param edge
+     * @return true if interval is not empty and its highest return edge
+     *         returns higher than edge.
+     */
+    private boolean conflicting(int high, int edge) {
+        return high != NONE && lowpt[high] > lowpt[edge];
+    }
+
+    /**
+     * Finishes edge, when all its subtree was visited. Counts its nesting
+     * depth and updates lowpoints of parent edge.
+     * 
+     * @param edge
+     * @param nestingDepth
+     *            Nesting depths of edges.
+     */
+    private void finishEdge(int edge, int[] nestingDepth) {
+        int node = sources[edge];
+        int parent = parentEdge[node];
+
+        nestingDepth[edge] = 2 * lowpt[edge];
+
+        if (lowpt2[edge] < height[node]) {
+            // Chordal edge.
+            nestingDepth[edge]++;
+        }
+
+        if (parent == NONE) {
+            return;
+        }
+
+        if (lowpt[edge] < lowpt[parent]) {
+            lowpt2[parent] = Math.min(lowpt[parent], lowpt2[edge]);
+            lowpt[parent] = lowpt[edge];
+        } else if (lowpt[edge] > lowpt[parent]) {
+            lowpt2[parent] = Math.min(lowpt2[parent], lowpt[edge]);
+        } else {
+            lowpt2[parent] = Math.min(lowpt2[parent], lowpt2[edge]);
+        }
+    }
+
+    /**
+     * @return Amount of edges, without loops and repeated edges.
+     */
+    public int getQuantityEdges() {
+        return sources.length;
+    }
+
+    /**
+     * Integrates return edges of outgoing edge into constraints of parent
+     * edge.
+     * 
+     * @param edge
+     *            Outgoing edge of node.
+     * @param first
+     *            true if edge is the first outgoing edge of node.
+     * @return true if constraints can be satisfied, or false if can not.
+     */
+    private boolean integrate(int edge, boolean first) {
+        int node = sources[edge];
+        int parent = parentEdge[node];
+
+        if (lowpt[edge] < height[node]) {
+            if (first) {
+                lowptEdge[parent] = lowptEdge[edge];
+            } else {
+                return addConstraints(edge, parent);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks planarity of graph.
+     * 
+     * @return true if the graph is planar, or false is not.
+     */
+    public boolean isPlanar() {
+        if (nodes > 2 && sources.length > 3 * nodes - 6) {
+            return false;
+        }
+
+        orient();
+
+        for (int root = 0; root < nodes; root++) {
+            if (parentEdge[root] == NONE && !test(root)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets height of the lowest return edge of conflict pair.
+     * 
+     * @param pair
+     *            Index of conflict pair on stack.
+     * @return the lowest lowpoint.
+     */
+    private int lowest(int pair) {
+        if (leftLow[pair] == NONE) {
+            return lowpt[rightLow[pair]];
+        } else if (rightLow[pair] == NONE) {
+            return lowpt[leftLow[pair]];
+        } else {
+            return Math.min(lowpt[leftLow[pair]], lowpt[rightLow[pair]]);
+        }
+    }
+
+    /**
+     * Orients edges by depth first search, counts lowpoints and orders
+     * outgoing edges of every node by nesting depth.
+     */
+    private void orient() {
+        int edges = sources.length;
+        boolean[] oriented = new boolean[edges];
+        int[] nestingDepth = new int[edges];
+        int[] stack = new int[nodes];
+        int[] position = Arrays.copyOf(firstIncident, nodes);
+
+        height = new int[nodes];
+        parentEdge = new int[nodes];
+        lowpt = new int[edges];
+        lowpt2 = new int[edges];
+        Arrays.fill(height, NONE);
+        Arrays.fill(parentEdge, NONE);
+
+        for (int root = 0; root < nodes; root++) {
+            if (height[root] != NONE) {
+                continue;
+            }
+
+            int top = 0;
+            stack[top++] = root;
+            height[root] = 0;
+
+            while (top > 0) {
+                int node = stack[top - 1];
+
+                if (position[node] == firstIncident[node + 1]) {
+                    top--;
+
+                    if (parentEdge[node] != NONE) {
+                        finishEdge(parentEdge[node], nestingDepth);
+                    }
+
+                    continue;
+                }
+
+                int edge = incidentEdges[position[node]++];
+
+                if (oriented[edge]) {
+                    continue;
+                }
+
+                int neighbor = sources[edge] == node ? targets[edge]
+                        : sources[edge];
+                oriented[edge] = true;
+                sources[edge] = node;
+                targets[edge] = neighbor;
+                lowpt[edge] = height[node];
+                lowpt2[edge] = height[node];
+
+                if (height[neighbor] == NONE) {
+                    parentEdge[neighbor] = edge;
+                    height[neighbor] = height[node] + 1;
+                    stack[top++] = neighbor;
+                } else {
+                    lowpt[edge] = height[neighbor];
+                    finishEdge(edge, nestingDepth);
+                }
+            }
+        }
+
+        // Counting sort by nesting depth, then stable grouping by source.
+        int[] byDepth = new int[2 * nodes + 2];
+
+        for (int edge = 0; edge < edges; edge++) {
+            byDepth[nestingDepth[edge] + 1]++;
+        }
+
+        for (int i = 0; i + 1 < byDepth.length; i++) {
+            byDepth[i + 1] += byDepth[i];
+        }
+
+        int[] sorted = new int[edges];
+
+        for (int edge = 0; edge < edges; edge++) {
+            sorted[byDepth[nestingDepth[edge]]++] = edge;
+        }
+
+        firstOrdered = new int[nodes + 1];
+
+        for (int edge = 0; edge < edges; edge++) {
+            firstOrdered[sources[edge] + 1]++;
+        }
+
+        for (int i = 0; i < nodes; i++) {
+            firstOrdered[i + 1] += firstOrdered[i];
+        }
+
+        int[] next = Arrays.copyOf(firstOrdered, nodes);
+        orderedEdges = new int[edges];
+
+        for (int edge : sorted) {
+            orderedEdges[next[sources[edge]]++] = edge;
+        }
+    }
+
+    /**
+     * Pushes conflict pair on stack.
+     * 
+     * @param pLeftLow
+     * @param pLeftHigh
+     * @param pRightLow
+     * @param pRightHigh
+     */
+    private void push(int pLeftLow, int pLeftHigh, int pRightLow,
+            int pRightHigh) {
+        leftLow[size] = pLeftLow;
+        leftHigh[size] = pLeftHigh;
+        rightLow[size] = pRightLow;
+        rightHigh[size] = pRightHigh;
+        size++;
+    }
+
+    /**
+     * Removes return edges ending at source of tree edge, when its subtree
+     * was visited.
+     * 
+     * @param edge
+     *            Tree edge.
+     */
+    private void removeBackEdges(int edge) {
+        int node = sources[edge];
+
+        while (size > 0 && lowest(size - 1) == height[node]) {
+            size--;
+        }
+
+        if (size > 0) {
+            int pair = size - 1;
+
+            while (leftHigh[pair] != NONE && targets[leftHigh[pair]] == node) {
+                leftHigh[pair] = ref[leftHigh[pair]];
+            }
+
+            if (leftHigh[pair] == NONE && leftLow[pair] != NONE) {
+                // Left interval was just emptied.
+                ref[leftLow[pair]] = rightLow[pair];
+                leftLow[pair] = NONE;
+            }
+
+            while (rightHigh[pair] != NONE
+                    && targets[rightHigh[pair]] == node) {
+                rightHigh[pair] = ref[rightHigh[pair]];
+            }
+
+            if (rightHigh[pair] == NONE && rightLow[pair] != NONE) {
+                // Right interval was just emptied.
+                ref[rightLow[pair]] = leftLow[pair];
+                rightLow[pair] = NONE;
+            }
+        }
+    }
+
+    /**
+     * Swaps intervals of conflict pair.
+     * 
+     * @param pair
+     *            Index of conflict pair on stack.
+     */
+    private void swap(int pair) {
+        int low = leftLow[pair];
+        int high = leftHigh[pair];
+        leftLow[pair] = rightLow[pair];
+        leftHigh[pair] = rightHigh[pair];
+        rightLow[pair] = low;
+        rightHigh[pair] = high;
+    }
+
+    /**
+     * Tests tree of depth first search from root. Outgoing edges are visited
+     * ordered by nesting depth.
+     * 
+     * @param root
+     * @return true if the tree is planar, or false is not.
+     */
+    private boolean test(int root) {
+        int edges = sources.length;
+
+        if (ref == null) {
+            ref = new int[edges];
+            lowptEdge = new int[edges];
+            stackBottom = new int[edges];
+            leftLow = new int[edges];
+            leftHigh = new int[edges];
+            rightLow = new int[edges];
+            rightHigh = new int[edges];
+            Arrays.fill(ref, NONE);
+        }
+
+        int[] stack = new int[nodes];
+        int[] position = new int[nodes];
+        int top = 0;
+        size = 0;
+        stack[top++] = root;
+        position[root] = firstOrdered[root];
+
+        while (top > 0) {
+            int node = stack[top - 1];
+
+            if (position[node] == firstOrdered[node + 1]) {
+                top--;
+                int parent = parentEdge[node];
+
+                if (parent != NONE) {
+                    removeBackEdges(parent);
+                    int source = sources[parent];
+
+                    if (!integrate(parent,
+                            position[source] - 1 == firstOrdered[source])) {
+                        return false;
+                    }
+                }
+
+                continue;
+            }
+
+            int edge = orderedEdges[position[node]++];
+            int target = targets[edge];
+            stackBottom[edge] = size;
+
+            if (edge == parentEdge[target]) {
+                stack[top++] = target;
+                position[target] = firstOrdered[target];
+            } else {
+                lowptEdge[edge] = edge;
+                push(NONE, NONE, edge, edge);
+
+                if (!integrate(edge,
+                        position[node] - 1 == firstOrdered[node])) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+}
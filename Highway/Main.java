@@ -19,8 +19,9 @@ import java.util.Scanner;
 public class Main {
 
     /**
-     * Main method. Executing and solving the problem. Should have only one
-     * parameter: -file name.
+     * Main method. Executing and solving the problem. Should have parameter:
+     * -file name. And optional: -engine lr|pieces, to choose engine checking
+     * planarity, lr by default.
      * 
      * @param args
      *            file name
@@ -32,6 +33,11 @@ public class Main {
         if (args.length == 1) {
             Highway highway = new Highway(readFile(new File(args[0])));
             System.out.println("Wynik : " + highway.getStatus());
+        } else if (args.length == 3 && args[1].equals("-engine")
+                && Highway.isEngine(args[2])) {
+            Highway highway = new Highway(readFile(new File(args[0])),
+                    args[2]);
+            System.out.println("Wynik : " + highway.getStatus());
         }
     }
 
@@ -0,0 +1,143 @@
+/**
+ * Project Praca domowa 01 – plate.
+ * Copyright Michał Szczygieł
+ * Created at Oct 16, 2013.
+ */
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Batch class. Counts cost of cuts for many plate files in one run. Files are
+ * processed on work-stealing pool, but results are printed in input order.
+ *
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ *
+ */
+public class Batch {
+
+    /**
+     * This class represents single task, which counts cost of cuts for one
+     * file.
+     */
+    private static class Task implements Callable<String> {
+
+        /**
+         * File with data for plate.
+         */
+        private File file;
+
+        /**
+         * The constructor for {@link Task}.
+         *
+         * @param file
+         *            File with data for plate.
+         */
+        public Task(File file) {
+            this.file = file;
+        }
+
+        /**
+         * This method reads file and counts cost of cuts. Malformed file does
+         * not throw, the error is returned as result line, also for errors
+         * like OutOfMemoryError, so failed file is known.
+         *
+         * @see java.util.concurrent.Callable#call()
+         */
+        @Override
+        public String call() {
+            long start = System.nanoTime();
+            String result;
+
+            try {
+                Main main = new Main();
+
+                if (main.readFile(file)) {
+                    Plate plate = new Plate(main.getArrayX(), main.getArrayY());
+                    result = plate.cutCost();
+                } else {
+                    result = "Niepoprawne dane";
+                }
+            } catch (Throwable e) {
+                result = "Błąd : " + e;
+            }
+
+            long time = (System.nanoTime() - start) / 1000000;
+
+            return file.getPath() + " : " + result + " (" + time + " ms)";
+        }
+    }
+
+    /**
+     * Main method. Executing and solving the problem for many files. Parameters
+     * are: -directory with files, or -list of file names.
+     *
+     * @param args
+     * @throws InterruptedException
+     */
+    public static void main(String... args) throws InterruptedException {
+        List<File> files = listFiles(args);
+
+        if (files.isEmpty()) {
+            return;
+        }
+
+        ExecutorService executor = Executors.newWorkStealingPool();
+        List<Future<String>> results = new ArrayList<Future<String>>(
+            files.size());
+
+        for (File file : files) {
+            results.add(executor.submit(new Task(file)));
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                System.out.println(results.get(i).get());
+            } catch (ExecutionException e) {
+                System.out.println(files.get(i).getPath() + " : Błąd : "
+                    + e.getCause());
+            }
+        }
+
+        executor.shutdown();
+    }
+
+    /**
+     * This method makes list of files from parameters. If the only parameter
+     * is a directory, all files from this directory are taken in order of
+     * names.
+     *
+     * @param args
+     * @return list of files to process.
+     */
+    private static List<File> listFiles(String... args) {
+        List<File> files = new ArrayList<File>();
+
+        if (args.length == 1 && new File(args[0]).isDirectory()) {
+            File[] content = new File(args[0]).listFiles();
+
+            if (content != null) {
+                Arrays.sort(content);
+
+                for (File file : content) {
+                    if (file.isFile()) {
+                        files.add(file);
+                    }
+                }
+            }
+        } else {
+            for (String arg : args) {
+                files.add(new File(arg));
+            }
+        }
+
+        return files;
+    }
+}
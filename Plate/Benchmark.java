@@ -0,0 +1,259 @@
+/**
+ * Project Praca domowa 01 – plate.
+ * Copyright Michał Szczygieł
+ * Created at Oct 16, 2013.
+ */
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * Benchmark class. Generates synthetic plates and measures time and allocation
+ * of reading file by {@link Main} and counting cost by {@link Plate}
+ * separately. Every measurement is preceded by warm-up iterations.
+ *
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ *
+ */
+public class Benchmark {
+
+    /**
+     * Distributions of generated weights.
+     */
+    private static final String[] DISTRIBUTIONS = { "uniform", "skewed",
+        "equal", "sorted" };
+
+    /**
+     * The greatest generated weight.
+     */
+    private static final int MAX_WEIGHT = 1000000;
+
+    /**
+     * Main method. Parameters are: -amount of cuts, -optional distribution
+     * (uniform, skewed, equal, sorted or all), -optional amount of measured
+     * iterations.
+     *
+     * @param args
+     * @throws IOException
+     */
+    public static void main(String... args) throws IOException {
+        if (args.length >= 1 && args.length <= 3) {
+            int size = Integer.parseInt(args[0]);
+            String distribution = args.length >= 2 ? args[1] : "all";
+            int iterations = args.length == 3 ? Integer.parseInt(args[2]) : 5;
+
+            System.out.println("rozkład; cięcia; odczyt ms/op; "
+                + "odczyt B/op; koszt ms/op; koszt B/op; cięcia/s");
+
+            for (String name : DISTRIBUTIONS) {
+                if (distribution.equals("all") || distribution.equals(name)) {
+                    new Benchmark(name, size, iterations).run();
+                }
+            }
+        }
+    }
+
+    /**
+     * Name of distribution of weights.
+     */
+    private String distribution;
+
+    /**
+     * Amount of measured iterations.
+     */
+    private int iterations;
+
+    /**
+     * Amount of cuts in plate.
+     */
+    private int size;
+
+    /**
+     * Sink for results, so JIT can not remove measured code.
+     */
+    private long sink = 0;
+
+    /**
+     * Constructor for Benchmark class.
+     *
+     * @param distribution
+     *            Name of distribution of weights.
+     * @param size
+     *            Amount of cuts in plate.
+     * @param iterations
+     *            Amount of measured iterations.
+     */
+    public Benchmark(String distribution, int size, int iterations) {
+        this.distribution = distribution;
+        this.size = size;
+        this.iterations = iterations;
+    }
+
+    /**
+     * @return bytes allocated by current thread so far.
+     */
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory
+            .getThreadMXBean()).getThreadAllocatedBytes(Thread
+            .currentThread().getId());
+    }
+
+    /**
+     * Generates weights for cuts.
+     *
+     * @param random
+     *            Generator of random values.
+     * @param quantity
+     *            Amount of weights.
+     * @return weights for cuts.
+     */
+    private int[] generate(Random random, int quantity) {
+        int[] weights = new int[quantity];
+
+        for (int i = 0; i < quantity; i++) {
+            if (distribution.equals("uniform")) {
+                weights[i] = random.nextInt(MAX_WEIGHT + 1);
+            } else if (distribution.equals("skewed")) {
+                double value = random.nextDouble();
+                weights[i] = (int) (MAX_WEIGHT * value * value * value * value);
+            } else if (distribution.equals("equal")) {
+                weights[i] = MAX_WEIGHT / 2;
+            } else {
+                weights[i] = (int) ((long) MAX_WEIGHT * i / quantity);
+            }
+        }
+
+        return weights;
+    }
+
+    /**
+     * Measures reading file and counting cost, prints one line of results.
+     *
+     * @throws IOException
+     */
+    public void run() throws IOException {
+        Random random = new Random(size);
+        int[] arrayX = generate(random, size / 2);
+        int[] arrayY = generate(random, size - size / 2);
+        File file = write(arrayX, arrayY);
+
+        try {
+            long[] read = new long[2];
+            long[] cost = new long[2];
+
+            for (int i = 0; i < iterations; i++) {
+                measureRead(file, null);
+                measureCost(arrayX, arrayY, null);
+            }
+
+            for (int i = 0; i < iterations; i++) {
+                measureRead(file, read);
+                measureCost(arrayX, arrayY, cost);
+            }
+
+            double readTime = read[0] / 1e6 / iterations;
+            double costTime = cost[0] / 1e6 / iterations;
+
+            System.out.println(String.format("%s; %d; %.3f; %d; %.3f; %d; %.0f",
+                distribution, size, readTime, read[1] / iterations, costTime,
+                cost[1] / iterations, size / costTime * 1000));
+        } finally {
+            file.delete();
+        }
+
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    /**
+     * Measures counting cost of cuts. Weights are copied before measurement,
+     * because {@link Plate} sorts them.
+     *
+     * @param arrayX
+     * @param arrayY
+     * @param result
+     *            Sums of time in nanoseconds and allocated bytes, or null for
+     *            warm-up.
+     */
+    private void measureCost(int[] arrayX, int[] arrayY, long[] result) {
+        Plate plate = new Plate(arrayX.clone(), arrayY.clone());
+        long bytes = allocatedBytes();
+        long start = System.nanoTime();
+
+        sink += plate.cutCost().length();
+
+        long time = System.nanoTime() - start;
+
+        if (result != null) {
+            result[0] += time;
+            result[1] += allocatedBytes() - bytes;
+        }
+    }
+
+    /**
+     * Measures reading file.
+     *
+     * @param file
+     * @param result
+     *            Sums of time in nanoseconds and allocated bytes, or null for
+     *            warm-up.
+     * @throws IOException
+     */
+    private void measureRead(File file, long[] result) throws IOException {
+        Main main = new Main();
+        long bytes = allocatedBytes();
+        long start = System.nanoTime();
+
+        if (main.readFile(file)) {
+            sink += main.getArrayX().length;
+        }
+
+        long time = System.nanoTime() - start;
+
+        if (result != null) {
+            result[0] += time;
+            result[1] += allocatedBytes() - bytes;
+        }
+    }
+
+    /**
+     * Writes plate into temporary file.
+     *
+     * @param arrayX
+     * @param arrayY
+     * @return file with plate.
+     * @throws IOException
+     */
+    private File write(int[] arrayX, int[] arrayY) throws IOException {
+        File file = File.createTempFile("plate", ".txt");
+        Writer writer = new BufferedWriter(new FileWriter(file));
+
+        try {
+            writer.write((arrayY.length + 1) + " " + (arrayX.length + 1) + "\n");
+
+            for (int weight : arrayX) {
+                writer.write(Integer.toString(weight));
+                writer.write(' ');
+            }
+
+            writer.write('\n');
+
+            for (int weight : arrayY) {
+                writer.write(Integer.toString(weight));
+                writer.write(' ');
+            }
+
+            writer.write('\n');
+        } finally {
+            writer.close();
+        }
+
+        return file;
+    }
+}
@@ -0,0 +1,331 @@
+/**
+ * Project Praca domowa 01 – plate.
+ * Copyright Michał Szczygieł
+ * Created at Oct 16, 2013.
+ */
+
+import java.util.Arrays;
+
+/**
+ * Class keeps weights of cuts in order. Weights are stored in treap, where
+ * every node keeps amount and sum of weights in its subtree. Thanks to this,
+ * inserting, removing and counting weights greater than given value are done
+ * in O(log n). Nodes are kept in parallel arrays, node 0 is an empty node.
+ *
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ *
+ */
+public class CutIndex {
+
+    /**
+     * Initial capacity of arrays with nodes.
+     */
+    private static final int CAPACITY = 16;
+
+    /**
+     * Amount of weights in subtree of node.
+     */
+    private int[] count = new int[CAPACITY];
+
+    /**
+     * Amount of equal weights kept in node.
+     */
+    private int[] duplicates = new int[CAPACITY];
+
+    /**
+     * Head of list with removed nodes, which can be used again.
+     */
+    private int free = 0;
+
+    /**
+     * Left child of node.
+     */
+    private int[] left = new int[CAPACITY];
+
+    /**
+     * Priority of node.
+     */
+    private int[] priority = new int[CAPACITY];
+
+    /**
+     * Right child of node. For removed nodes, next removed node.
+     */
+    private int[] right = new int[CAPACITY];
+
+    /**
+     * Root of treap.
+     */
+    private int root = 0;
+
+    /**
+     * State of generator for priorities.
+     */
+    private int seed = 0x2545F491;
+
+    /**
+     * Amount of used nodes, with empty node.
+     */
+    private int size = 1;
+
+    /**
+     * Sum of weights in subtree of node.
+     */
+    private long[] sum = new long[CAPACITY];
+
+    /**
+     * Weight kept in node.
+     */
+    private int[] value = new int[CAPACITY];
+
+    /**
+     * Adds weight to index.
+     *
+     * @param weight
+     */
+    public void add(int weight) {
+        if (contains(weight)) {
+            update(weight, 1);
+        } else {
+            int node = createNode(weight);
+            int[] parts = split(root, weight);
+            root = merge(merge(parts[0], node), parts[1]);
+        }
+    }
+
+    /**
+     * Checks if weight is in index.
+     *
+     * @param weight
+     * @return true if index contains weight.
+     */
+    public boolean contains(int weight) {
+        int node = root;
+
+        while (node != 0 && value[node] != weight) {
+            node = weight < value[node] ? left[node] : right[node];
+        }
+
+        return node != 0;
+    }
+
+    /**
+     * @return amount of weights in index.
+     */
+    public int count() {
+        return count[root];
+    }
+
+    /**
+     * Counts weights greater than given value.
+     *
+     * @param weight
+     * @return amount of weights greater than weight.
+     */
+    public int countGreater(int weight) {
+        int result = 0;
+        int node = root;
+
+        while (node != 0) {
+            if (value[node] > weight) {
+                result += duplicates[node] + count[right[node]];
+                node = left[node];
+            } else {
+                node = right[node];
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates new node with weight.
+     *
+     * @param weight
+     * @return index of new node.
+     */
+    private int createNode(int weight) {
+        int node;
+
+        if (free != 0) {
+            node = free;
+            free = right[node];
+        } else {
+            if (size == value.length) {
+                int capacity = value.length * 2;
+                count = Arrays.copyOf(count, capacity);
+                duplicates = Arrays.copyOf(duplicates, capacity);
+                left = Arrays.copyOf(left, capacity);
+                priority = Arrays.copyOf(priority, capacity);
+                right = Arrays.copyOf(right, capacity);
+                sum = Arrays.copyOf(sum, capacity);
+                value = Arrays.copyOf(value, capacity);
+            }
+
+            node = size++;
+        }
+
+        // Xorshift generator, enough for balancing the treap.
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+
+        value[node] = weight;
+        duplicates[node] = 1;
+        count[node] = 1;
+        sum[node] = weight;
+        priority[node] = seed;
+        left[node] = 0;
+        right[node] = 0;
+
+        return node;
+    }
+
+    /**
+     * Merges two treaps, all weights in first are smaller than in second.
+     *
+     * @param first
+     * @param second
+     * @return root of merged treap.
+     */
+    private int merge(int first, int second) {
+        if (first == 0 || second == 0) {
+            return first + second;
+        }
+
+        if (priority[first] > priority[second]) {
+            right[first] = merge(right[first], second);
+            refresh(first);
+            return first;
+        } else {
+            left[second] = merge(first, left[second]);
+            refresh(second);
+            return second;
+        }
+    }
+
+    /**
+     * Updates amount and sum of weights in subtree of node.
+     *
+     * @param node
+     */
+    private void refresh(int node) {
+        count[node] = count[left[node]] + count[right[node]]
+            + duplicates[node];
+        sum[node] = sum[left[node]] + sum[right[node]]
+            + (long) value[node] * duplicates[node];
+    }
+
+    /**
+     * Removes one weight from index.
+     *
+     * @param weight
+     * @return true if weight was removed, false if index does not contain it.
+     */
+    public boolean remove(int weight) {
+        if (!contains(weight)) {
+            return false;
+        }
+
+        int node = root;
+
+        while (value[node] != weight) {
+            node = weight < value[node] ? left[node] : right[node];
+        }
+
+        if (duplicates[node] > 1) {
+            update(weight, -1);
+        } else {
+            int[] lower = split(root, weight);
+            int[] upper = split(lower[1], (long) weight + 1);
+            root = merge(lower[0], upper[1]);
+
+            right[node] = free;
+            free = node;
+        }
+
+        return true;
+    }
+
+    /**
+     * Splits treap into weights smaller than given value and the rest.
+     *
+     * @param node
+     *            root of treap.
+     * @param weight
+     * @return roots of both parts.
+     */
+    private int[] split(int node, long weight) {
+        if (node == 0) {
+            return new int[] { 0, 0 };
+        }
+
+        int[] parts;
+
+        if (value[node] < weight) {
+            parts = split(right[node], weight);
+            right[node] = parts[0];
+            parts[0] = node;
+        } else {
+            parts = split(left[node], weight);
+            left[node] = parts[1];
+            parts[1] = node;
+        }
+
+        refresh(node);
+
+        return parts;
+    }
+
+    /**
+     * @return sum of weights in index.
+     */
+    public long sum() {
+        return sum[root];
+    }
+
+    /**
+     * Sums weights not greater than given value.
+     *
+     * @param weight
+     * @return sum of weights lower or equal to weight.
+     */
+    public long sumAtMost(int weight) {
+        long result = 0;
+        int node = root;
+
+        while (node != 0) {
+            if (value[node] <= weight) {
+                result += sum[left[node]] + (long) value[node]
+                    * duplicates[node];
+                node = right[node];
+            } else {
+                node = left[node];
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Changes amount of existing weight in index.
+     *
+     * @param weight
+     * @param change
+     *            1 or -1.
+     */
+    private void update(int weight, int change) {
+        int node = root;
+
+        while (true) {
+            count[node] += change;
+            sum[node] += (long) weight * change;
+
+            if (value[node] == weight) {
+                duplicates[node] += change;
+                return;
+            }
+
+            node = weight < value[node] ? left[node] : right[node];
+        }
+    }
+}
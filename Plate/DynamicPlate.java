@@ -0,0 +1,144 @@
+/**
+ * Project Praca domowa 01 – plate.
+ * Copyright Michał Szczygieł
+ * Created at Oct 16, 2013.
+ */
+
+/**
+ * Class, counting cost for cutting plate, which cuts are changed one by one.
+ * For every pair of horizontal cut x and vertical cut y, the cheaper of them is
+ * made later and has to cross the line of the other one, so it pays min(x, y)
+ * once more. The cost of cuts is sum of all weights plus sum of min(x, y) over
+ * all pairs. Adding or removing one cut changes only pairs with this cut,
+ * which are counted from {@link CutIndex} in O(log n).
+ *
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ *
+ */
+public class DynamicPlate {
+
+    /**
+     * Current cost of cuts.
+     */
+    private long cost = 0;
+
+    /**
+     * Weights for horizontal cuts.
+     */
+    private CutIndex indexX = new CutIndex();
+
+    /**
+     * Weights for vertical cuts.
+     */
+    private CutIndex indexY = new CutIndex();
+
+    /**
+     * Default constructor for DynamicPlate class.
+     */
+    public DynamicPlate() {
+    }
+
+    /**
+     * Constructor for DynamicPlate class. Automatically adds values for
+     * vertical and horizontal cuts.
+     *
+     * @param arrayX
+     * @param arrayY
+     */
+    public DynamicPlate(int[] arrayX, int[] arrayY) {
+        for (int weight : arrayX) {
+            addHorizontalCut(weight);
+        }
+
+        for (int weight : arrayY) {
+            addVerticalCut(weight);
+        }
+    }
+
+    /**
+     * Adds horizontal cut.
+     *
+     * @param weight
+     */
+    public void addHorizontalCut(int weight) {
+        checkWeight(weight);
+        cost = Math.addExact(cost, costChange(weight, indexY));
+        indexX.add(weight);
+    }
+
+    /**
+     * Adds vertical cut.
+     *
+     * @param weight
+     */
+    public void addVerticalCut(int weight) {
+        checkWeight(weight);
+        cost = Math.addExact(cost, costChange(weight, indexX));
+        indexY.add(weight);
+    }
+
+    /**
+     * Checks if weight is correct.
+     *
+     * @param weight
+     */
+    private void checkWeight(int weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Negative weight : " + weight);
+        }
+    }
+
+    /**
+     * Counts cost of single cut and all pairs with cuts in other direction.
+     *
+     * @param weight
+     *            Weight of cut.
+     * @param other
+     *            Weights of cuts in other direction.
+     * @return the change of cost.
+     */
+    private long costChange(int weight, CutIndex other) {
+        return Math.addExact(
+            weight + other.sumAtMost(weight),
+            Math.multiplyExact((long) weight, other.countGreater(weight)));
+    }
+
+    /**
+     * @return current cost of cuts.
+     */
+    public long currentCost() {
+        return cost;
+    }
+
+    /**
+     * Removes horizontal cut.
+     *
+     * @param weight
+     * @return true if cut was removed, false if plate does not contain it.
+     */
+    public boolean removeHorizontalCut(int weight) {
+        if (!indexX.remove(weight)) {
+            return false;
+        }
+
+        cost -= costChange(weight, indexY);
+
+        return true;
+    }
+
+    /**
+     * Removes vertical cut.
+     *
+     * @param weight
+     * @return true if cut was removed, false if plate does not contain it.
+     */
+    public boolean removeVerticalCut(int weight) {
+        if (!indexY.remove(weight)) {
+            return false;
+        }
+
+        cost -= costChange(weight, indexX);
+
+        return true;
+    }
+}
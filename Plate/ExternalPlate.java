@@ -0,0 +1,494 @@
+/**
+ * Project Praca domowa 01 – plate.
+ * Copyright Michał Szczygieł
+ * Created at Oct 16, 2013.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Class, counting cost for cutting plate, which weights do not fit into
+ * memory. Weights are sorted in runs of bounded size, stored on disk, and then
+ * merged in descending order for greedy counting.
+ *
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ *
+ */
+public class ExternalPlate {
+
+    /**
+     * This class merges sorted runs into one descending sequence of weights.
+     */
+    private static class Merger {
+
+        /**
+         * Queue of runs, with the greatest current weight on the head.
+         */
+        private PriorityQueue<Run> queue;
+
+        /**
+         * The constructor for {@link Merger}. Opens all runs.
+         *
+         * @param runs
+         *            Files with sorted runs.
+         * @param bufferSize
+         *            Size of read buffer for every run in bytes.
+         * @throws IOException
+         */
+        public Merger(List<File> runs, int bufferSize) throws IOException {
+            queue = new PriorityQueue<Run>(Math.max(1, runs.size()));
+
+            for (File file : runs) {
+                Run run = new Run(file, bufferSize);
+
+                if (run.advance()) {
+                    queue.add(run);
+                } else {
+                    run.close();
+                }
+            }
+        }
+
+        /**
+         * Closes all opened runs.
+         *
+         * @throws IOException
+         */
+        public void close() throws IOException {
+            for (Run run : queue) {
+                run.close();
+            }
+
+            queue.clear();
+        }
+
+        /**
+         * @return true if there are still weights to merge.
+         */
+        public boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        /**
+         * Removes the greatest weight from merge.
+         *
+         * @throws IOException
+         */
+        public void next() throws IOException {
+            Run run = queue.poll();
+
+            if (run.advance()) {
+                queue.add(run);
+            } else {
+                run.close();
+            }
+        }
+
+        /**
+         * @return the greatest weight left in merge.
+         */
+        public int peek() {
+            return queue.peek().value;
+        }
+    }
+
+    /**
+     * This class represents single sorted run stored on disk. Weights in run
+     * are stored in descending order.
+     */
+    private static class Run implements Comparable<Run> {
+
+        /**
+         * Stream with weights of the run.
+         */
+        private DataInputStream input;
+
+        /**
+         * Amount of weights left in the run.
+         */
+        private long remaining;
+
+        /**
+         * Current weight of the run.
+         */
+        private int value;
+
+        /**
+         * The constructor for {@link Run}.
+         *
+         * @param file
+         *            File with run.
+         * @param bufferSize
+         *            Size of read buffer in bytes.
+         * @throws IOException
+         */
+        public Run(File file, int bufferSize) throws IOException {
+            input = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(file), bufferSize));
+            remaining = file.length() / 4;
+        }
+
+        /**
+         * Reads next weight of the run.
+         *
+         * @return true if weight was read, false if run is finished.
+         * @throws IOException
+         */
+        public boolean advance() throws IOException {
+            if (remaining == 0) {
+                return false;
+            }
+
+            value = input.readInt();
+            remaining--;
+
+            return true;
+        }
+
+        /**
+         * Closes the run.
+         *
+         * @throws IOException
+         */
+        public void close() throws IOException {
+            input.close();
+        }
+
+        /**
+         * Runs with greater weight are first.
+         *
+         * @see java.lang.Comparable#compareTo(java.lang.Object)
+         */
+        @Override
+        public int compareTo(Run run) {
+            return Integer.compare(run.value, value);
+        }
+    }
+
+    /**
+     * The greatest amount of runs merged at once, so amount of opened files
+     * is bounded.
+     */
+    private static final int MAX_FAN_IN = 64;
+
+    /**
+     * Minimal size of read buffer for single run in bytes.
+     */
+    private static final int MIN_BUFFER = 4096;
+
+    /**
+     * Main method. Executing and solving the problem. Parameters are: -file
+     * name, -amount of weights kept in memory, -optional directory for
+     * temporary files.
+     *
+     * @param args
+     * @throws IOException
+     */
+    public static void main(String... args) throws IOException {
+        if (args.length == 2 || args.length == 3) {
+            File directory = args.length == 3 ? new File(args[2]) : null;
+            ExternalPlate plate = new ExternalPlate(
+                Integer.parseInt(args[1]), directory);
+            String result = plate.cutCost(new File(args[0]));
+
+            if (result != null) {
+                System.out.println(result);
+            }
+        }
+    }
+
+    /**
+     * Amount of weights kept in memory.
+     */
+    private int bufferSize;
+
+    /**
+     * Directory for temporary files, or null for default one.
+     */
+    private File directory;
+
+    /**
+     * Constructor for ExternalPlate class.
+     *
+     * @param bufferSize
+     *            Amount of weights kept in memory.
+     * @param directory
+     *            Directory for temporary files, or null for default one.
+     */
+    public ExternalPlate(int bufferSize, File directory) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+
+        this.bufferSize = bufferSize;
+        this.directory = directory;
+    }
+
+    /**
+     * This method reads weights from file and stores them in sorted runs.
+     *
+     * @param tokenizer
+     *            Source of weights.
+     * @param quantity
+     *            Amount of weights to read.
+     * @param runs
+     *            List, where files with runs are added.
+     * @param buffer
+     *            Buffer for sorting single run.
+     * @return true if all weights was read, false if file is too short.
+     * @throws IOException
+     */
+    private boolean createRuns(Tokenizer tokenizer, long quantity,
+            List<File> runs, int[] buffer) throws IOException {
+        while (quantity > 0) {
+            int count = 0;
+
+            while (count < buffer.length && count < quantity) {
+                if (!tokenizer.hasNext()) {
+                    return false;
+                }
+
+                buffer[count++] = tokenizer.next();
+            }
+
+            Arrays.sort(buffer, 0, count);
+
+            File file = File.createTempFile("plate", ".run", directory);
+            runs.add(file);
+
+            DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)));
+
+            try {
+                for (int i = count - 1; i >= 0; i--) {
+                    output.writeInt(buffer[i]);
+                }
+            } finally {
+                output.close();
+            }
+
+            quantity -= count;
+        }
+
+        return true;
+    }
+
+    /**
+     * Method counts cost of cuts for plate stored in file. First and Second
+     * element are a dimension (nxm). Another values are: x1, x2, . . . , xm-1;
+     * y1, y2, . . . , yn-1;
+     *
+     * @param file
+     *            File with data for plate.
+     * @return cost of cuts, or null if data are not correct.
+     * @throws IOException
+     */
+    public String cutCost(File file) throws IOException {
+        List<File> runsX = new ArrayList<File>();
+        List<File> runsY = new ArrayList<File>();
+
+        try {
+            // Buffer is local, so it is released before runs are merged.
+            int[] buffer = new int[bufferSize];
+            Tokenizer tokenizer = new Tokenizer(file);
+
+            try {
+                if (!tokenizer.hasNext()) {
+                    return null;
+                }
+
+                int dimensionN = tokenizer.next();
+
+                if (!tokenizer.hasNext()) {
+                    return null;
+                }
+
+                int dimensionM = tokenizer.next();
+
+                if (dimensionN <= 0 || dimensionM <= 0
+                        || !createRuns(tokenizer, dimensionM - 1, runsX,
+                            buffer)
+                        || !createRuns(tokenizer, dimensionN - 1, runsY,
+                            buffer)) {
+                    return null;
+                }
+            } finally {
+                tokenizer.close();
+            }
+
+            buffer = null;
+
+            // Runs are merged at most fanIn at once, every one with its own
+            // buffer and one more for output, so opened files and memory of
+            // buffers do not grow with amount of runs.
+            long memory = 4L * bufferSize;
+            int fanIn = (int) Math.max(2,
+                Math.min(MAX_FAN_IN, memory / MIN_BUFFER));
+            int runBuffer = (int) Math.max(MIN_BUFFER, memory / (fanIn + 1));
+
+            reduceRuns(runsX, fanIn / 2, fanIn, runBuffer);
+            reduceRuns(runsY, fanIn - fanIn / 2, fanIn, runBuffer);
+
+            Merger mergerX = new Merger(runsX, runBuffer);
+            Merger mergerY = new Merger(runsY, runBuffer);
+
+            try {
+                return "Koszt cięcia : " + cutCost(mergerX, mergerY);
+            } finally {
+                mergerX.close();
+                mergerY.close();
+            }
+        } finally {
+            for (File run : runsX) {
+                run.delete();
+            }
+
+            for (File run : runsY) {
+                run.delete();
+            }
+        }
+    }
+
+    /**
+     * Method counts cost of cuts for weights merged in descending order.
+     *
+     * @param mergerX
+     *            weights for horizontal cuts.
+     * @param mergerY
+     *            weights for vertical cuts.
+     * @return cost of cuts.
+     * @throws IOException
+     */
+    private long cutCost(Merger mergerX, Merger mergerY) throws IOException {
+        long accumulator = 0;
+        long horizontalLines = 1;
+        long verticalLines = 1;
+
+        while (mergerX.hasNext() || mergerY.hasNext()) {
+            int maxX = mergerX.hasNext() ? mergerX.peek() : 0;
+            int maxY = mergerY.hasNext() ? mergerY.peek() : 0;
+
+            // Tokenizer reads only non negative weights, so zero weights are
+            // skipped as in Plate.cutCost.
+            if (maxX == 0 && maxY == 0) {
+                // Only zero weights left, they do not change the cost.
+                break;
+            } else if (!mergerY.hasNext()
+                    || (mergerX.hasNext() && maxX > maxY)) {
+                accumulator = Math.addExact(accumulator,
+                    Math.multiplyExact(maxX, horizontalLines));
+                verticalLines++;
+                mergerX.next();
+            } else {
+                accumulator = Math.addExact(accumulator,
+                    Math.multiplyExact(maxY, verticalLines));
+                horizontalLines++;
+                mergerY.next();
+            }
+        }
+
+        return accumulator;
+    }
+
+    /**
+     * Method merges runs into one run, stored in descending order.
+     *
+     * @param runs
+     *            Files with sorted runs.
+     * @param file
+     *            File for merged run.
+     * @param bufferSize
+     *            Size of read buffer for every run and of write buffer in
+     *            bytes.
+     * @throws IOException
+     */
+    private static void mergeRuns(List<File> runs, File file, int bufferSize)
+            throws IOException {
+        Merger merger = new Merger(runs, bufferSize);
+
+        try {
+            DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file),
+                    bufferSize));
+
+            try {
+                while (merger.hasNext()) {
+                    output.writeInt(merger.peek());
+                    merger.next();
+                }
+            } finally {
+                output.close();
+            }
+        } finally {
+            merger.close();
+        }
+    }
+
+    /**
+     * Method merges runs in passes, at most fanIn of them at once, until
+     * amount of runs is not greater than limit. Merged runs are deleted and
+     * replaced in list by new ones.
+     *
+     * @param runs
+     *            Files with sorted runs.
+     * @param limit
+     *            The greatest amount of runs left.
+     * @param fanIn
+     *            The greatest amount of runs merged at once.
+     * @param bufferSize
+     *            Size of read buffer for every run and of write buffer in
+     *            bytes.
+     * @throws IOException
+     */
+    private void reduceRuns(List<File> runs, int limit, int fanIn,
+            int bufferSize) throws IOException {
+        while (runs.size() > limit) {
+            List<File> merged = new ArrayList<File>();
+
+            try {
+                for (int i = 0; i < runs.size(); i += fanIn) {
+                    List<File> group = runs.subList(i,
+                        Math.min(runs.size(), i + fanIn));
+
+                    if (group.size() == 1) {
+                        merged.add(group.get(0));
+                    } else {
+                        File file = File.createTempFile("plate", ".run",
+                            directory);
+                        merged.add(file);
+                        mergeRuns(group, file, bufferSize);
+                    }
+                }
+            } catch (IOException e) {
+                // New runs are not in list yet, so caller can not delete them.
+                for (File file : merged) {
+                    if (!runs.contains(file)) {
+                        file.delete();
+                    }
+                }
+
+                throw e;
+            }
+
+            for (File run : runs) {
+                if (!merged.contains(run)) {
+                    run.delete();
+                }
+            }
+
+            runs.clear();
+            runs.addAll(merged);
+        }
+    }
+}
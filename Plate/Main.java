@@ -4,10 +4,11 @@
  * Created at Oct 16, 2013.
  */
 
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.ArrayList;
-import java.util.Scanner;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 
 /**
  * Main class.
@@ -18,12 +19,13 @@ import java.util.Scanner;
 public class Main {
 
     /**
-     * Main method. Executing and solving the problem. Should have only one parameter: -file name.
+     * Main method. Executing and solving the problem. Should have parameter: -file name, and optional -plan, to
+     * print the order of cuts before the cost.
      * 
      * @param args
-     * @throws FileNotFoundException
+     * @throws IOException
      */
-    public static void main(String... args) throws FileNotFoundException {
+    public static void main(String... args) throws IOException {
 
         if (args.length == 1) {
             Main main = new Main();
@@ -32,6 +34,16 @@ public class Main {
                 Plate plate = new Plate(main.getArrayX(), main.getArrayY());
                 System.out.println(plate.cutCost());
             }
+        } else if (args.length == 2 && args[1].equals("-plan")) {
+            Main main = new Main();
+
+            if (main.readFile(new File(args[0]))) {
+                Plate plate = new Plate(main.getArrayX(), main.getArrayY());
+                Writer plan = new BufferedWriter(new OutputStreamWriter(System.out));
+                long cost = plate.cutPlan(plan);
+                plan.flush();
+                System.out.println("Koszt cięcia : " + cost);
+            }
         }
 
     }
@@ -39,105 +51,122 @@ public class Main {
     /**
      * Variable stores data with weights for horizontal cuts.
      */
-    private ArrayList<Integer> arrayX = null;
+    private int[] arrayX = null;
 
     /**
      * Variable stores data with weights for vertical cuts.
      */
-    private ArrayList<Integer> arrayY = null;
+    private int[] arrayY = null;
 
     /**
-     * Method fills data from file to proper arrays. First and Second element are a dimension (nxm). Another values are:
-     * x1, x2, . . . , xm-1; y1, y2, . . . , yn-1;
-     * 
-     * @param data
-     * @return
+     * Amount of numbers read from file.
      */
-    private boolean fillData(ArrayList<String> data) {
-        boolean isFilled = false;
-
-        if (Integer.parseInt(data.get(1)) + Integer.parseInt(data.get(0)) - 2 <= data
-            .size()
-            && Integer.parseInt(data.get(1)) + Integer.parseInt(data.get(0))
-                - 2 >= 0) {
-
-            ArrayList<Integer> arrayX = new ArrayList<Integer>(
-                Integer.parseInt(data.get(1)) - 1);
+    private int count = 0;
 
-            for (int i = 2; i < Integer.parseInt(data.get(1)) + 1; i++) {
-                arrayX.add(Integer.parseInt(data.get(i)));
-            }
+    /**
+     * First dimension of the plate (n).
+     */
+    private int dimensionN = 0;
 
-            setArrayX(arrayX);
+    /**
+     * Second dimension of the plate (m).
+     */
+    private int dimensionM = 0;
 
-            ArrayList<Integer> arrayY = new ArrayList<Integer>(
-                Integer.parseInt(data.get(0)) - 1);
+    /**
+     * The greatest amount of numbers, which file can contain. Every number
+     * takes at least one digit and one separator.
+     */
+    private long maxCount = 0;
 
-            for (int i = Integer.parseInt(data.get(1)) + 1; i < (Integer
-                .parseInt(data.get(0)) - 1)
-                + (Integer.parseInt(data.get(1)) + 1); i++) {
-                arrayY.add(Integer.parseInt(data.get(i)));
+    /**
+     * Method fills next number from file to proper array. First and Second element are a dimension (nxm). Another
+     * values are: x1, x2, . . . , xm-1; y1, y2, . . . , yn-1;
+     * 
+     * @param value
+     * @return false if dimensions are not correct.
+     */
+    private boolean fillData(int value) {
+        boolean isFilled = true;
+
+        if (count == 0) {
+            dimensionN = value;
+        } else if (count == 1) {
+            dimensionM = value;
+
+            // Arrays are not allocated for more numbers than file can have.
+            if (dimensionN > 0 && dimensionM > 0
+                && (long) dimensionN + dimensionM <= maxCount) {
+                setArrayX(new int[dimensionM - 1]);
+                setArrayY(new int[dimensionN - 1]);
+            } else {
+                isFilled = false;
             }
-
-            setArrayY(arrayY);
-
-            isFilled = true;
-
+        } else if (count < dimensionM + 1) {
+            arrayX[count - 2] = value;
+        } else {
+            arrayY[count - dimensionM - 1] = value;
         }
 
+        count++;
+
         return isFilled;
     }
 
     /**
      * @return the arrayX
      */
-    public ArrayList<Integer> getArrayX() {
+    public int[] getArrayX() {
         return arrayX;
     }
 
     /**
      * @return the arrayY
      */
-    public ArrayList<Integer> getArrayY() {
+    public int[] getArrayY() {
         return arrayY;
     }
 
+    /**
+     * Checks if all values for the plate are read.
+     * 
+     * @return true if all values are read.
+     */
+    private boolean isFilled() {
+        return count >= 2 && count >= (long) dimensionN + dimensionM;
+    }
+
     /**
      * This method, read data from file and check correctness of the data. Also fill arrays with proper data.
      * 
      * @param fileName
      * @return true if read correctly or false if not.
-     * @throws FileNotFoundException
+     * @throws IOException
      */
-    private boolean readFile(File fileName) throws FileNotFoundException {
-        boolean isReaded = false;
+    boolean readFile(File fileName) throws IOException {
+        count = 0;
+        maxCount = fileName.length() / 2 + 1;
 
-        ArrayList<String> data = new ArrayList<String>();
+        Tokenizer tokenizer = new Tokenizer(fileName);
 
-        @SuppressWarnings("resource")
-        Scanner scanner = new Scanner(fileName);
-
-        while (scanner.hasNextLine()) {
-            String[] lines = scanner.nextLine().split("[^0-9]+");
-            for (String line : lines) {
-                if (line.matches("[0-9]+")) {
-                    data.add(line);
+        try {
+            while (!isFilled() && tokenizer.hasNext()) {
+                if (!fillData(tokenizer.next())) {
+                    return false;
                 }
             }
+        } finally {
+            tokenizer.close();
         }
 
-        if (data.size() >= 2 && fillData(data)) {
-            isReaded = true;
-        }
-
-        return isReaded;
+        return isFilled();
     }
 
     /**
      * @param arrayX
      *            the arrayX to set
      */
-    public void setArrayX(ArrayList<Integer> arrayX) {
+    public void setArrayX(int[] arrayX) {
         this.arrayX = arrayX;
     }
 
@@ -145,7 +174,7 @@ public class Main {
      * @param arrayY
      *            the arrayY to set
      */
-    public void setArrayY(ArrayList<Integer> arrayY) {
+    public void setArrayY(int[] arrayY) {
         this.arrayY = arrayY;
     }
 }
@@ -4,8 +4,10 @@
  * Created at Oct 16, 2013.
  */
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 
 /**
  * Class, counting cost for cutting plate.
@@ -16,15 +18,25 @@ import java.util.Collections;
 
 public class Plate {
 
+    /**
+     * Weights below this limit can be counted in histogram instead of sorting.
+     */
+    private static final int COUNTING_LIMIT = 1 << 24;
+
+    /**
+     * Histogram is used only if range of weights is not greater than this ratio times amount of cuts.
+     */
+    private static final int COUNTING_RATIO = 4;
+
     /**
      * Variable stores data with weights for horizontal cuts.
      */
-    private ArrayList<Integer> arrayX = null;
+    private int[] arrayX = null;
 
     /**
      * Variable stores data with weights for vertical cuts.
      */
-    private ArrayList<Integer> arrayY = null;
+    private int[] arrayY = null;
 
     /**
      * Constructor for Plate class. Automatically set arrays with values for vertical and horizontal cuts.
@@ -33,74 +45,280 @@ public class Plate {
      * @param arrayY
      */
     public Plate(ArrayList<Integer> arrayX, ArrayList<Integer> arrayY) {
+        this(toArray(arrayX), toArray(arrayY));
+    }
+
+    /**
+     * Constructor for Plate class. Automatically set arrays with values for vertical and horizontal cuts.
+     * 
+     * @param arrayX
+     * @param arrayY
+     */
+    public Plate(int[] arrayX, int[] arrayY) {
         setArrayX(arrayX);
         setArrayY(arrayY);
     }
 
     /**
-     * Method counts cost of cuts.
+     * Method counts cost of cuts for sorted arrays. Both arrays have to be
+     * sorted into ascending order. The greedy choice is made with two pointers
+     * moving from the end of arrays, so whole pass is linear.
      * 
+     * @param costsX
+     *            sorted weights for horizontal cuts.
+     * @param costsY
+     *            sorted weights for vertical cuts.
      * @return cost of cuts.
+     * @throws ArithmeticException
+     *             if cost of cuts overflows a long.
      */
-    public String cutCost() {
+    public static long cutCost(int[] costsX, int[] costsY) {
+        long accumulator = 0;
+        long horizontalLines = 1;
+        long verticalLines = 1;
+        int indexX = costsX.length - 1;
+        int indexY = costsY.length - 1;
+        boolean negative = (costsX.length > 0 && costsX[0] < 0)
+            || (costsY.length > 0 && costsY[0] < 0);
 
-        // Arrays needs sort, to finding optimal cost.
-        Collections.sort(getArrayX());
-        Collections.sort(getArrayY());
+        while (indexX >= 0 || indexY >= 0) {
+            int maxX = indexX >= 0 ? costsX[indexX] : 0;
+            int maxY = indexY >= 0 ? costsY[indexY] : 0;
 
-        int accumulator = 0;
-        int horizontalLines = 1;
-        int verticalLines = 1;
-        int sizeX = getArrayX().size();
-        int sizeY = getArrayY().size();
-        int numberOfIterations = sizeX + sizeY;
+            if (!negative && maxX == 0 && maxY == 0) {
+                // Only zero weights left, they do not change the cost.
+                break;
+            } else if (indexY < 0 || (indexX >= 0 && maxX > maxY)) {
+                accumulator = Math.addExact(accumulator,
+                    Math.multiplyExact(maxX, horizontalLines));
+                verticalLines++;
+                indexX--;
+            } else {
+                accumulator = Math.addExact(accumulator,
+                    Math.multiplyExact(maxY, verticalLines));
+                horizontalLines++;
+                indexY--;
+            }
+        }
 
-        for (int i = 0; i < numberOfIterations; i++) {
+        return accumulator;
+    }
 
-            int maxX = 0;
-            int maxY = 0;
+    /**
+     * Method counts cost of cuts for weights from range 0..max. Weights are counted in histograms, then buckets are
+     * taken from the greatest weight. All cuts with equal weight are counted at once, vertical cuts before horizontal
+     * ones, as in greedy order.
+     * 
+     * @param costsX
+     *            weights for horizontal cuts.
+     * @param costsY
+     *            weights for vertical cuts.
+     * @param max
+     *            the greatest weight.
+     * @return cost of cuts.
+     * @throws ArithmeticException
+     *             if cost of cuts overflows a long.
+     */
+    private static long countingCutCost(int[] costsX, int[] costsY, int max) {
+        int[] countsX = new int[max + 1];
+        int[] countsY = new int[max + 1];
 
-            if (getArrayX().size() > 0) {
-                maxX = Collections.max(getArrayX());
+        for (int cost : costsX) {
+            countsX[cost]++;
+        }
+
+        for (int cost : costsY) {
+            countsY[cost]++;
+        }
+
+        long accumulator = 0;
+        long horizontalLines = 1;
+        long verticalLines = 1;
+
+        // Zero weights do not change the cost.
+        for (int weight = max; weight > 0; weight--) {
+            if (countsY[weight] > 0) {
+                accumulator = Math.addExact(accumulator,
+                    Math.multiplyExact((long) weight * countsY[weight], verticalLines));
+                horizontalLines += countsY[weight];
             }
 
-            if (getArrayY().size() > 0) {
-                maxY = Collections.max(getArrayY());
+            if (countsX[weight] > 0) {
+                accumulator = Math.addExact(accumulator,
+                    Math.multiplyExact((long) weight * countsX[weight], horizontalLines));
+                verticalLines += countsX[weight];
             }
+        }
 
-            if (maxX > maxY) {
-                if (getArrayX().size() > 0) {
-                    accumulator += maxX * horizontalLines;
-                    getArrayX().remove(sizeX - 1);
-                    verticalLines++;
-                    sizeX--;
-                }
+        return accumulator;
+    }
 
+    /**
+     * Method counts cost of cuts and writes the order of cuts. Every cut is
+     * written in separate line as: name of cut line (x1, x2, . . . , y1, y2,
+     * . . .), its weight and amount of pieces which it crosses. Lines are
+     * written at once when cut is chosen, so whole plan is never kept in
+     * memory.
+     * 
+     * @param plan
+     *            writer for the plan of cuts.
+     * @return cost of cuts.
+     * @throws IOException
+     */
+    public long cutPlan(Writer plan) throws IOException {
+        long[] cutsX = sortedCuts(getArrayX());
+        long[] cutsY = sortedCuts(getArrayY());
+        long accumulator = 0;
+        long horizontalLines = 1;
+        long verticalLines = 1;
+        int indexX = cutsX.length - 1;
+        int indexY = cutsY.length - 1;
+
+        while (indexX >= 0 || indexY >= 0) {
+            long maxX = indexX >= 0 ? cutsX[indexX] : 0;
+            long maxY = indexY >= 0 ? cutsY[indexY] : 0;
+
+            // Zero weights are also written, machine has to make all cuts.
+            if (indexY < 0 || (indexX >= 0 && maxX >> 32 > maxY >> 32)) {
+                accumulator = Math.addExact(accumulator,
+                    Math.multiplyExact(maxX >> 32, horizontalLines));
+                writeCut(plan, 'x', maxX, horizontalLines);
+                verticalLines++;
+                indexX--;
             } else {
-                if (getArrayY().size() > 0) {
-                    accumulator += maxY * verticalLines;
-                    getArrayY().remove(sizeY - 1);
-                    horizontalLines++;
-                    sizeY--;
-                }
+                accumulator = Math.addExact(accumulator,
+                    Math.multiplyExact(maxY >> 32, verticalLines));
+                writeCut(plan, 'y', maxY, verticalLines);
+                horizontalLines++;
+                indexY--;
             }
+        }
+
+        return accumulator;
+    }
+
+    /**
+     * @param array
+     * @return the greatest value in array, or 0 if array is empty.
+     */
+    private static int maximum(int[] array) {
+        int max = 0;
+
+        for (int value : array) {
+            max = Math.max(max, value);
+        }
+
+        return max;
+    }
+
+    /**
+     * @param array
+     * @return the smallest value in array, or 0 if array is empty.
+     */
+    private static int minimum(int[] array) {
+        int min = 0;
+
+        for (int value : array) {
+            min = Math.min(min, value);
+        }
+
+        return min;
+    }
+
+    /**
+     * Method packs weights with their positions and sorts them. Weight is kept
+     * in high bits and position in low bits of every element.
+     * 
+     * @param array
+     *            weights for cuts.
+     * @return sorted array of packed cuts.
+     */
+    private static long[] sortedCuts(int[] array) {
+        long[] cuts = new long[array.length];
 
+        for (int i = 0; i < cuts.length; i++) {
+            cuts[i] = ((long) array[i] << 32) | i;
         }
 
-        return "Koszt cięcia : " + accumulator;
+        Arrays.sort(cuts);
+
+        return cuts;
+    }
+
+    /**
+     * Method writes single cut into plan.
+     * 
+     * @param plan
+     *            writer for the plan of cuts.
+     * @param direction
+     *            x for horizontal cut, y for vertical cut.
+     * @param cut
+     *            packed weight and position of cut.
+     * @param lines
+     *            amount of pieces crossed by cut.
+     * @throws IOException
+     */
+    private static void writeCut(Writer plan, char direction, long cut,
+        long lines) throws IOException {
+        plan.write(direction);
+        plan.write(Long.toString((cut & 0xffffffffL) + 1));
+        plan.write(' ');
+        plan.write(Long.toString(cut >> 32));
+        plan.write(" * ");
+        plan.write(Long.toString(lines));
+        plan.write('\n');
+    }
+
+    /**
+     * Method converts weights for cuts into primitive array.
+     * 
+     * @param array
+     *            weights for cuts.
+     * @return array of weights.
+     */
+    private static int[] toArray(ArrayList<Integer> array) {
+        int[] costs = new int[array.size()];
+
+        for (int i = 0; i < costs.length; i++) {
+            costs[i] = array.get(i);
+        }
+
+        return costs;
+    }
+
+    /**
+     * Method counts cost of cuts.
+     * 
+     * @return cost of cuts.
+     */
+    public String cutCost() {
+        int min = Math.min(minimum(getArrayX()), minimum(getArrayY()));
+        int max = Math.max(maximum(getArrayX()), maximum(getArrayY()));
+        long size = (long) getArrayX().length + getArrayY().length;
+
+        // Small weights are counted, it is faster than sorting.
+        if (min >= 0 && max < COUNTING_LIMIT && max <= COUNTING_RATIO * size) {
+            return "Koszt cięcia : " + countingCutCost(getArrayX(), getArrayY(), max);
+        }
+
+        // Arrays needs sort, to finding optimal cost.
+        Arrays.sort(getArrayX());
+        Arrays.sort(getArrayY());
+
+        return "Koszt cięcia : " + cutCost(getArrayX(), getArrayY());
     }
 
     /**
      * @return the arrayX
      */
-    public ArrayList<Integer> getArrayX() {
+    public int[] getArrayX() {
         return arrayX;
     }
 
     /**
      * @return the arrayY
      */
-    public ArrayList<Integer> getArrayY() {
+    public int[] getArrayY() {
         return arrayY;
     }
 
@@ -108,7 +326,7 @@ public class Plate {
      * @param arrayX
      *            the arrayX to set
      */
-    public void setArrayX(ArrayList<Integer> arrayX) {
+    public void setArrayX(int[] arrayX) {
         this.arrayX = arrayX;
     }
 
@@ -116,7 +334,7 @@ public class Plate {
      * @param arrayY
      *            the arrayY to set
      */
-    public void setArrayY(ArrayList<Integer> arrayY) {
+    public void setArrayY(int[] arrayY) {
         this.arrayY = arrayY;
     }
 }
@@ -0,0 +1,150 @@
+/**
+ * Project Praca domowa 01 – plate.
+ * Copyright Michał Szczygieł
+ * Created at Oct 16, 2013.
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * Tokenizer class. Reads non negative integers from file. File is mapped into
+ * memory region by region and numbers are parsed directly from bytes. Every
+ * byte other than digit is a separator.
+ *
+ * @author Michał Szczygieł <michal.szczygiel@wp.pl>
+ *
+ */
+public class Tokenizer {
+
+    /**
+     * Maximal size of one mapped region of the file.
+     */
+    private static final long MAP_SIZE = 1 << 30;
+
+    /**
+     * Currently mapped region of the file.
+     */
+    private MappedByteBuffer buffer = null;
+
+    /**
+     * Channel of the file.
+     */
+    private FileChannel channel;
+
+    /**
+     * First digit of next number, or -1 if not read yet.
+     */
+    private int digit = -1;
+
+    /**
+     * Position in file, where next region starts.
+     */
+    private long position = 0;
+
+    /**
+     * Size of the file.
+     */
+    private long size;
+
+    /**
+     * Constructor for Tokenizer class. Opens file to read.
+     *
+     * @param file
+     * @throws IOException
+     */
+    public Tokenizer(File file) throws IOException {
+        channel = new FileInputStream(file).getChannel();
+        size = channel.size();
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        buffer = null;
+        channel.close();
+    }
+
+    /**
+     * Checks if there is next number in the file.
+     *
+     * @return true if next number exists.
+     * @throws IOException
+     */
+    public boolean hasNext() throws IOException {
+        while (digit < 0) {
+            int value = read();
+
+            if (value < 0) {
+                return false;
+            }
+
+            value -= '0';
+
+            if (value >= 0 && value <= 9) {
+                digit = value;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Reads next number from the file. Should be called only if
+     * {@link #hasNext()} returns true.
+     *
+     * @return the next number.
+     * @throws IOException
+     * @throws NumberFormatException
+     *             if number does not fit into int.
+     */
+    public int next() throws IOException {
+        long value = digit;
+        digit = -1;
+
+        while (true) {
+            int next = read() - '0';
+
+            if (next < 0 || next > 9) {
+                break;
+            }
+
+            value = value * 10 + next;
+
+            if (value > Integer.MAX_VALUE) {
+                throw new NumberFormatException("Value out of range at byte "
+                    + (position - buffer.remaining() - 1));
+            }
+        }
+
+        return (int) value;
+    }
+
+    /**
+     * Reads next byte from the file. Maps next region of the file if current
+     * one is finished.
+     *
+     * @return the next byte, or -1 if end of file.
+     * @throws IOException
+     */
+    private int read() throws IOException {
+        if (buffer == null || !buffer.hasRemaining()) {
+            if (position >= size) {
+                return -1;
+            }
+
+            long length = Math.min(size - position, MAP_SIZE);
+            buffer = channel.map(MapMode.READ_ONLY, position, length);
+            position += length;
+        }
+
+        return buffer.get() & 0xff;
+    }
+}